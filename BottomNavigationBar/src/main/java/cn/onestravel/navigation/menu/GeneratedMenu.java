@@ -0,0 +1,71 @@
+package cn.onestravel.navigation.menu;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name GeneratedMenu
+ * @description 构建时由 menu-compiler.gradle 将 menu 的 xml 文件编译得到的菜单数据，运行时不需要再解析 xml
+ * @createTime 2026/10/18 14:05
+ */
+public final class GeneratedMenu {
+    //是否浮动
+    public static final int FLAG_FLOATING = 1;
+    //是否默认选中
+    public static final int FLAG_CHECKED = 1 << 1;
+    //是否可以选中
+    public static final int FLAG_CHECKABLE = 1 << 2;
+
+    //菜单的布局文件
+    private final int menuRes;
+    //菜单项的 id
+    private final int[] ids;
+    //菜单项的图标资源
+    private final int[] icons;
+    //菜单项的文字，文字是资源引用时为 null
+    private final String[] titles;
+    //菜单项的文字资源，文字不是资源引用时为 0
+    private final int[] titleRes;
+    //菜单项的标记，见 FLAG_*
+    private final int[] flags;
+
+    public GeneratedMenu(int menuRes, int[] ids, int[] icons, String[] titles, int[] titleRes, int[] flags) {
+        if (ids.length != icons.length || ids.length != titles.length
+                || ids.length != titleRes.length || ids.length != flags.length) {
+            throw new IllegalArgumentException("menu tables must have the same length");
+        }
+        this.menuRes = menuRes;
+        this.ids = ids;
+        this.icons = icons;
+        this.titles = titles;
+        this.titleRes = titleRes;
+        this.flags = flags;
+    }
+
+    public int getMenuRes() {
+        return menuRes;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int getId(int position) {
+        return ids[position];
+    }
+
+    public int getIcon(int position) {
+        return icons[position];
+    }
+
+    public String getTitle(int position) {
+        return titles[position];
+    }
+
+    public int getTitleRes(int position) {
+        return titleRes[position];
+    }
+
+    public boolean hasFlag(int position, int flag) {
+        return (flags[position] & flag) != 0;
+    }
+}
@@ -0,0 +1,158 @@
+package cn.onestravel.navigation.menu;
+
+import android.content.res.ColorStateList;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.util.LruCache;
+
+import java.util.Arrays;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name MenuCache
+ * @description 进程内共享的 menu 解析结果缓存，以 (menu 资源, 图标颜色状态列表中的颜色, 屏幕密度, 夜间模式) 为 key
+ * @createTime 2026/10/18 10:35
+ */
+public class MenuCache {
+    //最多缓存的 menu 数量
+    private static final int MAX_SIZE = 8;
+    //图标会用到的状态，与 MenuParser.createStateListDrawable 中添加的状态一致，key 中比较这些状态下的颜色
+    private static final int[][] TINT_STATES = new int[][]{
+            {android.R.attr.state_checked},
+            {android.R.attr.state_selected},
+            {android.R.attr.state_pressed},
+            {android.R.attr.state_focused},
+            {}
+    };
+
+    private static final LruCache<Key, ParsedMenu> CACHE = new LruCache<>(MAX_SIZE);
+
+    /**
+     * 获取解析后的 menu，有缓存时直接返回缓存，否则解析并加入缓存
+     *
+     * @param resources 资源
+     * @param menuRes   menu 资源文件
+     * @param iconTint  图标的状态颜色列表
+     * @return menuRes 为 0 时返回 null
+     */
+    public static ParsedMenu obtain(Resources resources, int menuRes, ColorStateList iconTint) {
+        if (menuRes == 0) {
+            return null;
+        }
+        Key key = newKey(resources, menuRes, iconTint);
+        ParsedMenu menu = CACHE.get(key);
+        if (menu == null) {
+            menu = MenuParser.parse(resources, menuRes, iconTint);
+            if (menu != null && menu.isShareable()) {
+                CACHE.put(key, menu);
+            }
+        }
+        return menu;
+    }
+
+    /**
+     * 获取构建时编译好的 menu，有缓存时直接返回缓存，否则创建并加入缓存
+     *
+     * @param resources 资源
+     * @param generated 编译好的菜单数据
+     * @param iconTint  图标的状态颜色列表
+     * @return
+     */
+    public static ParsedMenu obtain(Resources resources, GeneratedMenu generated, ColorStateList iconTint) {
+        Key key = newKey(resources, generated.getMenuRes(), iconTint);
+        ParsedMenu menu = CACHE.get(key);
+        if (menu == null) {
+            menu = MenuParser.parse(resources, generated, iconTint);
+            if (menu.isShareable()) {
+                CACHE.put(key, menu);
+            }
+        }
+        return menu;
+    }
+
+    /**
+     * 只从缓存中获取解析后的 menu，不会解析
+     *
+     * @param resources 资源
+     * @param menuRes   menu 资源文件
+     * @param iconTint  图标的状态颜色列表
+     * @return 没有缓存时返回 null
+     */
+    public static ParsedMenu peek(Resources resources, int menuRes, ColorStateList iconTint) {
+        if (menuRes == 0) {
+            return null;
+        }
+        return CACHE.get(newKey(resources, menuRes, iconTint));
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static void clear() {
+        CACHE.evictAll();
+    }
+
+    /**
+     * 创建缓存的 key
+     *
+     * @param resources 资源
+     * @param menuRes   menu 资源文件
+     * @param iconTint  图标的状态颜色列表
+     * @return
+     */
+    private static Key newKey(Resources resources, int menuRes, ColorStateList iconTint) {
+        int[] tintColors = null;
+        if (iconTint != null) {
+            tintColors = new int[TINT_STATES.length + 1];
+            for (int i = 0; i < TINT_STATES.length; i++) {
+                tintColors[i] = iconTint.getColorForState(TINT_STATES[i], iconTint.getDefaultColor());
+            }
+            tintColors[TINT_STATES.length] = iconTint.getDefaultColor();
+        }
+        int nightMode = resources.getConfiguration().uiMode & Configuration.UI_MODE_NIGHT_MASK;
+        return new Key(menuRes, tintColors, resources.getDisplayMetrics().densityDpi, nightMode);
+    }
+
+    /**
+     * 缓存的 key。颜色状态列表按图标会用到的各个状态下的颜色比较，不按实例比较：
+     * 直接写颜色值或在低版本系统上每次加载得到的都是新实例，颜色相同时仍然命中缓存。
+     * 夜间模式切换后图标可能来自不同的资源，即使颜色相同也不使用之前的缓存
+     */
+    private static final class Key {
+        private final int menuRes;
+        //各个状态下的颜色和默认颜色，没有图标颜色时为 null
+        private final int[] tintColors;
+        private final int densityDpi;
+        private final int nightMode;
+
+        Key(int menuRes, int[] tintColors, int densityDpi, int nightMode) {
+            this.menuRes = menuRes;
+            this.tintColors = tintColors;
+            this.densityDpi = densityDpi;
+            this.nightMode = nightMode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return menuRes == key.menuRes && Arrays.equals(tintColors, key.tintColors)
+                    && densityDpi == key.densityDpi && nightMode == key.nightMode;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = menuRes;
+            result = 31 * result + Arrays.hashCode(tintColors);
+            result = 31 * result + densityDpi;
+            result = 31 * result + nightMode;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package cn.onestravel.navigation.menu;
+
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.content.res.XmlResourceParser;
+import android.graphics.PorterDuff;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.StateListDrawable;
+import android.support.v4.content.res.ResourcesCompat;
+import android.support.v4.graphics.drawable.DrawableCompat;
+import android.util.Log;
+
+import cn.onestravel.navigation.BuildConfig;
+import cn.onestravel.navigation.utils.TraceUtils;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name MenuParser
+ * @description 解析 menu 的 xml 文件，得到 {@link ParsedMenu}
+ * @createTime 2026/10/18 10:20
+ */
+public class MenuParser {
+    private static final String TAG = "MenuParser";
+    //选中状态
+    private static final int[] STATE_CHECKED = new int[]{android.R.attr.state_checked};
+
+    /**
+     * 解析 menu 的 xml 的文件，得到相关的 导航栏菜单
+     *
+     * @param resources 资源
+     * @param xmlRes    menu 资源文件
+     * @param iconTint  图标的状态颜色列表
+     * @return 解析失败时返回 null
+     */
+    public static ParsedMenu parse(Resources resources, int xmlRes, ColorStateList iconTint) {
+        if (xmlRes == 0) {
+            return null;
+        }
+        TraceUtils.beginSection(TraceUtils.SECTION_PARSE);
+        try {
+            return parseXml(resources, xmlRes, iconTint);
+        } finally {
+            TraceUtils.endSection();
+        }
+    }
+
+    /**
+     * 解析 menu 的 xml 文件，日志只在 BuildConfig.DEBUG_LOG 为 true 时编译进来
+     *
+     * @param resources 资源
+     * @param xmlRes    menu 资源文件
+     * @param iconTint  图标的状态颜色列表
+     * @return
+     */
+    private static ParsedMenu parseXml(Resources resources, int xmlRes, ColorStateList iconTint) {
+        List<ParsedMenu.Entry> entries = new ArrayList<>();
+        int checkedPosition = -1;
+        XmlResourceParser xmlParser = resources.getXml(xmlRes);
+        try {
+            int event = xmlParser.getEventType();   //先获取当前解析器光标在哪
+            while (event != XmlPullParser.END_DOCUMENT) {    //如果还没到文档的结束标志，那么就继续往下处理
+                switch (event) {
+                    case XmlPullParser.START_DOCUMENT:
+                        if (BuildConfig.DEBUG_LOG) {
+                            Log.d(TAG, "xml解析开始");
+                        }
+                        break;
+                    case XmlPullParser.START_TAG:
+                        //一般都是获取标签的属性值，所以在这里数据你需要的数据
+                        if (BuildConfig.DEBUG_LOG) {
+                            Log.d(TAG, "当前标签是：" + xmlParser.getName());
+                        }
+                        if (xmlParser.getName().equals("item")) {
+                            int id = 0;
+                            String title = null;
+                            int titleRes = 0;
+                            boolean floating = false;
+                            boolean checked = false;
+                            boolean checkable = true;
+                            StateListDrawable icon = null;
+                            Drawable plain = null;
+                            for (int i = 0; i < xmlParser.getAttributeCount(); i++) {
+                                //两种方法获取属性值
+                                if (BuildConfig.DEBUG_LOG) {
+                                    Log.d(TAG, "第" + (i + 1) + "个属性：" + xmlParser.getAttributeName(i)
+                                            + ": " + xmlParser.getAttributeValue(i));
+                                }
+                                if ("id".equalsIgnoreCase(xmlParser.getAttributeName(i))) {
+                                    id = xmlParser.getAttributeResourceValue(i, 0);
+                                } else if ("icon".equalsIgnoreCase(xmlParser.getAttributeName(i))) {
+                                    int drawableId = xmlParser.getAttributeResourceValue(i, 0);
+                                    Drawable drawable = ResourcesCompat.getDrawable(resources, drawableId, null);
+                                    plain = drawable.getConstantState().newDrawable();
+                                    icon = createStateListDrawable(drawable, iconTint);
+                                } else if ("title".equalsIgnoreCase(xmlParser.getAttributeName(i))) {
+                                    //@string 引用只保存资源 id，与编译好的菜单一致，由每个 View 按当前语言读取
+                                    titleRes = xmlParser.getAttributeResourceValue(i, 0);
+                                    title = titleRes != 0 ? null : xmlParser.getAttributeValue(i);
+                                } else if ("floating".equalsIgnoreCase(xmlParser.getAttributeName(i))) {
+                                    floating = xmlParser.getAttributeBooleanValue(i, false);
+                                } else if ("checked".equalsIgnoreCase(xmlParser.getAttributeName(i))) {
+                                    checked = xmlParser.getAttributeBooleanValue(i, false);
+                                } else if ("checkable".equalsIgnoreCase(xmlParser.getAttributeName(i))) {
+                                    checkable = xmlParser.getAttributeBooleanValue(i, false);
+                                }
+                            }
+                            if (checkable && checked) {
+                                checkedPosition = entries.size();
+                            }
+                            entries.add(new ParsedMenu.Entry(id, title, titleRes, floating, checked, checkable, icon, plain));
+                        }
+                        break;
+                    case XmlPullParser.TEXT:
+                        if (BuildConfig.DEBUG_LOG) {
+                            Log.d(TAG, "Text:" + xmlParser.getText());
+                        }
+                        break;
+                    case XmlPullParser.END_TAG:
+                        if (BuildConfig.DEBUG_LOG) {
+                            Log.d(TAG, "xml解析结束");
+                        }
+                        break;
+                    default:
+                        break;
+                }
+                event = xmlParser.next();   //将当前解析器光标往下一步移
+            }
+        } catch (XmlPullParserException e) {
+            e.printStackTrace();
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            xmlParser.close();
+        }
+        return new ParsedMenu(xmlRes, entries, checkedPosition);
+    }
+
+    /**
+     * 根据构建时编译好的菜单数据创建 {@link ParsedMenu}，不需要解析 xml
+     *
+     * @param resources 资源
+     * @param generated 编译好的菜单数据
+     * @param iconTint  图标的状态颜色列表
+     * @return
+     */
+    public static ParsedMenu parse(Resources resources, GeneratedMenu generated, ColorStateList iconTint) {
+        TraceUtils.beginSection(TraceUtils.SECTION_PARSE);
+        try {
+            return parseGenerated(resources, generated, iconTint);
+        } finally {
+            TraceUtils.endSection();
+        }
+    }
+
+    /**
+     * 根据编译好的菜单数据创建每个菜单项的图标
+     *
+     * @param resources 资源
+     * @param generated 编译好的菜单数据
+     * @param iconTint  图标的状态颜色列表
+     * @return
+     */
+    private static ParsedMenu parseGenerated(Resources resources, GeneratedMenu generated, ColorStateList iconTint) {
+        List<ParsedMenu.Entry> entries = new ArrayList<>(generated.size());
+        int checkedPosition = -1;
+        for (int i = 0; i < generated.size(); i++) {
+            StateListDrawable icon = null;
+            Drawable plain = null;
+            if (generated.getIcon(i) != 0) {
+                Drawable drawable = ResourcesCompat.getDrawable(resources, generated.getIcon(i), null);
+                plain = drawable.getConstantState().newDrawable();
+                icon = createStateListDrawable(drawable, iconTint);
+            }
+            boolean checked = generated.hasFlag(i, GeneratedMenu.FLAG_CHECKED);
+            boolean checkable = generated.hasFlag(i, GeneratedMenu.FLAG_CHECKABLE);
+            if (checkable && checked) {
+                checkedPosition = entries.size();
+            }
+            entries.add(new ParsedMenu.Entry(generated.getId(i), generated.getTitle(i), generated.getTitleRes(i),
+                    generated.hasFlag(i, GeneratedMenu.FLAG_FLOATING), checked, checkable, icon, plain));
+        }
+        return new ParsedMenu(generated.getMenuRes(), entries, checkedPosition);
+    }
+
+    /**
+     * 根据图标创建选中和未选中的状态列表，图标本身是 selector 时直接使用
+     *
+     * @param drawable 图标
+     * @param colors   图标的状态颜色列表
+     * @return
+     */
+    public static StateListDrawable createStateListDrawable(Drawable drawable, ColorStateList colors) {
+        StateListDrawable stateListDrawable = new StateListDrawable();
+        if (drawable instanceof StateListDrawable) {
+            stateListDrawable = (StateListDrawable) drawable;
+            stateListDrawable.setState(STATE_CHECKED);
+            stateListDrawable.mutate();
+        } else {
+            Drawable selectedDrawable = tintListDrawable(drawable, colors);
+            selectedDrawable.setState(new int[]{android.R.attr.state_checked});
+            stateListDrawable.addState(new int[]{android.R.attr.state_checked}, selectedDrawable.getCurrent());
+            stateListDrawable.addState(new int[]{android.R.attr.state_selected}, selectedDrawable.getCurrent());
+            stateListDrawable.addState(new int[]{android.R.attr.state_pressed}, selectedDrawable.getCurrent());
+            stateListDrawable.addState(new int[]{android.R.attr.state_focused}, selectedDrawable.getCurrent());
+            selectedDrawable.setState(new int[]{});
+            stateListDrawable.addState(new int[]{}, selectedDrawable.getCurrent());
+        }
+        return stateListDrawable;
+    }
+
+    /**
+     * 更改图片颜色
+     *
+     * @param drawable
+     * @param colors
+     * @return
+     */
+    public static Drawable tintListDrawable(Drawable drawable, ColorStateList colors) {
+        Drawable wrappedDrawable = DrawableCompat.wrap(drawable);
+        DrawableCompat.setTintMode(wrappedDrawable, PorterDuff.Mode.MULTIPLY);
+        DrawableCompat.setTintList(wrappedDrawable, colors);
+        return wrappedDrawable;
+    }
+}
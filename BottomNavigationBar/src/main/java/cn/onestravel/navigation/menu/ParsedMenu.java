@@ -0,0 +1,161 @@
+package cn.onestravel.navigation.menu;
+
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.StateListDrawable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name ParsedMenu
+ * @description 解析后的 menu 菜单，不可变，可以在多个 BottomNavigationBar 之间共享
+ * @createTime 2026/10/18 10:12
+ */
+public final class ParsedMenu {
+    //菜单的布局文件
+    private final int menuRes;
+    //菜单项列表
+    private final List<Entry> entries;
+    //xml 中设置为默认选中的位置，没有设置时为 -1
+    private final int checkedPosition;
+
+    public ParsedMenu(int menuRes, List<Entry> entries, int checkedPosition) {
+        this.menuRes = menuRes;
+        this.entries = Collections.unmodifiableList(entries);
+        this.checkedPosition = checkedPosition;
+    }
+
+    public int getMenuRes() {
+        return menuRes;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getCheckedPosition() {
+        return checkedPosition;
+    }
+
+    /**
+     * 是否可以在多个 View 之间共享，只有所有图标都有 ConstantState 时才可以共享
+     *
+     * @return
+     */
+    public boolean isShareable() {
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            if ((entry.iconPrototype != null && entry.icon == null)
+                    || (entry.drawablePrototype != null && entry.drawable == null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 菜单项，图标通过 ConstantState 为每个 View 创建自己的实例；
+     * 文字资源也在创建 View 的菜单数据时才读取，缓存中不保存某一种语言的文字
+     */
+    public static final class Entry {
+        private final int id;
+        private final String title;
+        //文字资源，为 0 时使用 title
+        private final int titleRes;
+        private final boolean floating;
+        private final boolean checked;
+        private final boolean checkable;
+        //已着色的图标状态列表
+        private final StateListDrawable iconPrototype;
+        private final Drawable.ConstantState icon;
+        //原始图标
+        private final Drawable drawablePrototype;
+        private final Drawable.ConstantState drawable;
+
+        public Entry(int id, String title, boolean floating, boolean checked, boolean checkable,
+                     StateListDrawable icon, Drawable drawable) {
+            this(id, title, 0, floating, checked, checkable, icon, drawable);
+        }
+
+        public Entry(int id, String title, int titleRes, boolean floating, boolean checked, boolean checkable,
+                     StateListDrawable icon, Drawable drawable) {
+            this.id = id;
+            this.title = title;
+            this.titleRes = titleRes;
+            this.floating = floating;
+            this.checked = checked;
+            this.checkable = checkable;
+            this.iconPrototype = icon;
+            this.icon = icon == null ? null : icon.getConstantState();
+            this.drawablePrototype = drawable;
+            this.drawable = drawable == null ? null : drawable.getConstantState();
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public int getTitleRes() {
+            return titleRes;
+        }
+
+        /**
+         * 获取当前语言下的文字，有文字资源时每次从资源中读取
+         *
+         * @param resources
+         * @return
+         */
+        public String getTitle(Resources resources) {
+            return titleRes != 0 ? resources.getString(titleRes) : title;
+        }
+
+        public boolean isFloating() {
+            return floating;
+        }
+
+        public boolean isChecked() {
+            return checked;
+        }
+
+        public boolean isCheckable() {
+            return checkable;
+        }
+
+        /**
+         * 创建一个新的图标状态列表实例
+         *
+         * @param resources
+         * @return
+         */
+        public StateListDrawable newIcon(Resources resources) {
+            if (icon == null) {
+                return iconPrototype;
+            }
+            return (StateListDrawable) icon.newDrawable(resources);
+        }
+
+        /**
+         * 创建一个新的原始图标实例
+         *
+         * @param resources
+         * @return
+         */
+        public Drawable newDrawable(Resources resources) {
+            if (drawable == null) {
+                return drawablePrototype;
+            }
+            return drawable.newDrawable(resources);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package cn.onestravel.navigation.utils;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name TraceUtils
+ * @description 输出 systrace/Perfetto 可以看到的 Trace 片段，API 18 以下不输出
+ * @createTime 2026/10/18 19:05
+ */
+public class TraceUtils {
+    //解析菜单
+    public static final String SECTION_PARSE = "BNB#parse";
+    //测量
+    public static final String SECTION_MEASURE = "BNB#measure";
+    //绘制
+    public static final String SECTION_DRAW = "BNB#draw";
+    //处理点击
+    public static final String SECTION_TOUCH = "BNB#touch";
+
+    /**
+     * 开始一个 Trace 片段，必须在同一个线程调用 {@link #endSection()} 结束
+     *
+     * @param name 片段名称，使用上面的常量，避免拼接字符串
+     */
+    public static void beginSection(String name) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.beginSection(name);
+        }
+    }
+
+    /**
+     * 结束当前线程最近开始的 Trace 片段
+     */
+    public static void endSection() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+            Trace.endSection();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package cn.onestravel.navigation.view;
+
+import android.graphics.Canvas;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name BadgeRenderer
+ * @description 未读消息的绘制，通过 {@link BottomNavigationBar#setBadgeRenderer(BadgeRenderer)} 替换默认样式，
+ * 每帧每个有未读消息的Item调用一次，实现中不要分配对象，绘制范围不要超出传入的圆形和描边宽度
+ * @createTime 2026/10/18 22:10
+ */
+public interface BadgeRenderer {
+
+    /**
+     * 画出未读消息
+     *
+     * @param canvas   画布
+     * @param count    未读消息数 <0 时为小红点；>0 && <100 时为对应的数字；>=100 时为 99+
+     * @param centerX  圆心的 X 坐标
+     * @param centerY  圆心的 Y 坐标
+     * @param radius   半径
+     * @param textSize 数字的文字大小，小红点时为 0
+     */
+    void drawBadge(Canvas canvas, int count, int centerX, int centerY, int radius, int textSize);
+}
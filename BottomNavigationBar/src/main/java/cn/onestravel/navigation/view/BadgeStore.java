@@ -0,0 +1,117 @@
+package cn.onestravel.navigation.view;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name BadgeStore
+ * @description 无锁的未读消息数存储，任意线程都可以写入，主线程每帧取出变化的数量一次性处理
+ * @createTime 2026/10/18 16:40
+ */
+final class BadgeStore {
+    //默认可以保存的位置数量
+    static final int DEFAULT_CAPACITY = 64;
+
+    //每个位置最新写入的未读消息数
+    private volatile AtomicIntegerArray counts;
+    //每个位置是否有未处理的写入，每个 long 保存 64 个位置
+    private volatile AtomicLongArray dirty;
+    //是否已经安排了一次处理
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    BadgeStore(int capacity) {
+        counts = new AtomicIntegerArray(capacity);
+        dirty = new AtomicLongArray((capacity + 63) / 64);
+    }
+
+    /**
+     * 扩大容量，只能在主线程调用，扩容时正在写入的数量可能丢失
+     *
+     * @param capacity 需要的位置数量
+     */
+    void ensureCapacity(int capacity) {
+        AtomicIntegerArray oldCounts = counts;
+        if (capacity <= oldCounts.length()) {
+            return;
+        }
+        AtomicLongArray oldDirty = dirty;
+        AtomicIntegerArray newCounts = new AtomicIntegerArray(capacity);
+        AtomicLongArray newDirty = new AtomicLongArray((capacity + 63) / 64);
+        for (int i = 0; i < oldCounts.length(); i++) {
+            newCounts.set(i, oldCounts.get(i));
+        }
+        for (int i = 0; i < oldDirty.length(); i++) {
+            newDirty.set(i, oldDirty.get(i));
+        }
+        counts = newCounts;
+        dirty = newDirty;
+    }
+
+    /**
+     * 写入未读消息数，可以在任意线程调用
+     *
+     * @param position Item 的位置
+     * @param count    未读消息数
+     * @return 位置超出容量时返回 false
+     */
+    boolean write(int position, int count) {
+        AtomicIntegerArray counts = this.counts;
+        AtomicLongArray dirty = this.dirty;
+        if (position < 0 || position >= counts.length()) {
+            return false;
+        }
+        //先写数量再标记，处理时先清除标记再读数量，保证不会漏掉最新的值
+        counts.set(position, count);
+        int word = position >>> 6;
+        long bit = 1L << (position & 63);
+        long old;
+        do {
+            old = dirty.get(word);
+            if ((old & bit) != 0) {
+                break;
+            }
+        } while (!dirty.compareAndSet(word, old, old | bit));
+        return true;
+    }
+
+    /**
+     * 标记需要安排一次处理
+     *
+     * @return 之前没有安排过时返回 true，调用方需要安排处理
+     */
+    boolean requestDrain() {
+        return drainScheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * 取出所有变化的未读消息数，只能在主线程调用
+     *
+     * @param consumer 处理每个变化的位置
+     */
+    void drain(Consumer consumer) {
+        drainScheduled.set(false);
+        AtomicIntegerArray counts = this.counts;
+        AtomicLongArray dirty = this.dirty;
+        for (int word = 0; word < dirty.length(); word++) {
+            if (dirty.get(word) == 0) {
+                continue;
+            }
+            long bits = dirty.getAndSet(word, 0);
+            while (bits != 0) {
+                int position = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                consumer.onMsgCount(position, counts.get(position));
+            }
+        }
+    }
+
+    /**
+     * 处理变化的未读消息数
+     */
+    interface Consumer {
+        void onMsgCount(int position, int count);
+    }
+}
@@ -3,42 +3,58 @@ package cn.onestravel.navigation.view;
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.ColorStateList;
+import android.content.res.Resources;
 import android.content.res.TypedArray;
-import android.content.res.XmlResourceParser;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
+import android.graphics.Path;
 import android.graphics.PorterDuff;
+import android.graphics.PorterDuffXfermode;
 import android.graphics.Rect;
+import android.graphics.RectF;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.StateListDrawable;
+import android.os.AsyncTask;
 import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.os.SystemClock;
 import android.support.annotation.ColorRes;
 import android.support.annotation.DrawableRes;
+import android.support.annotation.IdRes;
 import android.support.annotation.MenuRes;
 import android.support.v4.content.res.ResourcesCompat;
-import android.support.v4.graphics.drawable.DrawableCompat;
+import android.support.v4.view.ViewPager;
+import android.support.v4.view.ViewCompat;
+import android.text.TextPaint;
 import android.text.TextUtils;
 import android.util.AttributeSet;
-import android.util.Log;
+import android.util.SparseIntArray;
+import android.view.Choreographer;
 import android.view.MotionEvent;
+import android.view.VelocityTracker;
 import android.view.View;
+import android.view.ViewConfiguration;
 import android.view.ViewGroup;
 import android.widget.FrameLayout;
 import android.widget.LinearLayout;
+import android.widget.OverScroller;
 import android.widget.RelativeLayout;
 
-import org.xmlpull.v1.XmlPullParser;
-import org.xmlpull.v1.XmlPullParserException;
-
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.Executor;
 
 import cn.onestravel.navigation.R;
+import cn.onestravel.navigation.menu.GeneratedMenu;
+import cn.onestravel.navigation.menu.MenuCache;
+import cn.onestravel.navigation.menu.MenuParser;
+import cn.onestravel.navigation.menu.ParsedMenu;
 import cn.onestravel.navigation.utils.DensityUtils;
+import cn.onestravel.navigation.utils.TraceUtils;
 
 /**
  * @author onestravel
@@ -47,8 +63,10 @@ import cn.onestravel.navigation.utils.DensityUtils;
  */
 public class BottomNavigationBar extends View {
     private String TAG = "BottomNavigationBar";
-    // 导航菜单键列表
-    private List<Item> itemList = new ArrayList<>();
+    // 导航菜单数据，按字段保存为并列的数组
+    private ItemModel items = ItemModel.EMPTY;
+    //发布给其他线程读取的菜单数据，替换菜单时与 items 一起更新，主线程的绘制和点击仍然读取 items
+    private volatile ItemModel publishedItems = ItemModel.EMPTY;
     //总宽度 width
     private int mWidth = 0;
     //总高度 height
@@ -71,16 +89,300 @@ public class BottomNavigationBar extends View {
     private ColorStateList itemColorStateList;
     //Item菜单的选中事件
     private OnItemSelectedListener onItemSelectedListener;
+    //Item菜单的重复选中事件
+    private OnItemReselectedListener onItemReselectedListener;
+    //选中状态：菜单设置后还没有分发过初始选中
+    private static final int SELECTION_PENDING = 0;
+    //选中状态：已经分发过选中事件，之后位置不变时不再回调
+    private static final int SELECTION_DISPATCHED = 1;
+    //选中来源：布局完成后的初始选中
+    private static final int SOURCE_INITIAL = 0;
+    //选中来源：调用 setSelected
+    private static final int SOURCE_PROGRAMMATIC = 1;
+    //选中来源：用户点击
+    private static final int SOURCE_USER = 2;
+    //选中来源：配置变化后恢复保存的选中，不回调也不播放动画
+    private static final int SOURCE_RESTORED = 3;
+    //选中来源：关联的 ViewPager 切换页面，颜色和指示器已经跟随滑动变化，不播放动画
+    private static final int SOURCE_PAGER = 4;
+    //当前的选中状态
+    private int selectionState = SELECTION_PENDING;
+    //菜单异步加载完成前设置的选中位置
+    private int pendingSelection = -1;
+    //初始选中来自恢复的状态，第一次布局时不回调 onItemSelected
+    private boolean restoredSelection;
+    //关联的 ViewPager，页面位置与Item位置一一对应
+    private ViewPager viewPager;
+    //把 ViewPager 的滑动和页面切换同步到导航栏
+    private final ViewPager.OnPageChangeListener pageChangeListener = new ViewPager.OnPageChangeListener() {
+        @Override
+        public void onPageScrolled(int position, float positionOffset, int positionOffsetPixels) {
+            setPageScrollOffset(position, positionOffset);
+        }
+
+        @Override
+        public void onPageSelected(int position) {
+            select(position, SOURCE_PAGER);
+        }
+
+        @Override
+        public void onPageScrollStateChanged(int state) {
+            if (state == ViewPager.SCROLL_STATE_IDLE) {
+                setPageScrollOffset(-1, 0f);
+            }
+        }
+    };
     // 当前选中的坐标位置
     private int checkedPosition = 0;
     //是否开启上浮
     private boolean floatingEnable;
-    //上浮距离
+    //设置的上浮距离，关闭上浮时保留，布局时使用 getFloatingOffset()
     private int floatingUp;
     //背景资源
     private Drawable background;
     //菜单的布局文件
     private @MenuRes int menuRes;
+    //构建时编译好的菜单，通过 setMenu(GeneratedMenu) 设置
+    private GeneratedMenu generatedMenu;
+    //菜单加载的序号，每次设置菜单时加一，用于丢弃过期的异步加载结果
+    private int menuGeneration;
+    //是否正在异步加载菜单
+    private boolean menuLoading;
+    //异步加载菜单使用的线程池，加载中修改图标颜色时用它重新加载
+    private Executor menuExecutor;
+    //菜单加载完成前设置的未读消息数
+    private SparseIntArray pendingMsgCounts;
+    //未读消息数的存储，任意线程都可以写入
+    private final BadgeStore badgeStore = new BadgeStore(BadgeStore.DEFAULT_CAPACITY);
+    //处理主线程取出的未读消息数
+    private final BadgeStore.Consumer msgCountConsumer = new BadgeStore.Consumer() {
+        @Override
+        public void onMsgCount(int position, int count) {
+            if (menuLoading) {
+                if (pendingMsgCounts == null) {
+                    pendingMsgCounts = new SparseIntArray();
+                }
+                pendingMsgCounts.put(position, count);
+            } else if (position < items.size) {
+                applyMsgCount(position, count);
+            }
+        }
+    };
+    //在下一帧处理其他线程写入的未读消息数，API 16 以上才有 Choreographer，使用时再创建
+    private Choreographer.FrameCallback msgCountFrameCallback;
+    //从其他线程切回主线程后，把处理安排到下一帧
+    private final Runnable scheduleMsgCountDrain = new Runnable() {
+        @Override
+        public void run() {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN) {
+                if (msgCountFrameCallback == null) {
+                    msgCountFrameCallback = new Choreographer.FrameCallback() {
+                        @Override
+                        public void doFrame(long frameTimeNanos) {
+                            drainMsgCounts();
+                        }
+                    };
+                }
+                Choreographer.getInstance().postFrameCallback(msgCountFrameCallback);
+            } else {
+                drainMsgCounts();
+            }
+        }
+    };
+    //选中状态
+    private static final int[] STATE_CHECKED = new int[]{android.R.attr.state_checked};
+    //未选中状态
+    private static final int[] STATE_NORMAL = new int[]{};
+    //未读消息数超过99时显示的文字
+    private static final String MSG_COUNT_OVERFLOW = "99+";
+    //小红点的半径
+    private static final int DOT_RADIUS = 9;
+    //禁用的Item的透明度
+    private static final int DISABLED_ALPHA = 0x61;
+    //顶部阴影的默认颜色
+    private static final int DEFAULT_SHADOW_COLOR = 0x33000000;
+    //主线程 Handler，异步加载菜单完成后切回主线程
+    private static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    //默认文字大小
+    private int defaultTitleSize = DensityUtils.dpToPx(getResources(), 14);
+    //文字过长时缩小的最小文字大小
+    private int minTitleSize = DensityUtils.dpToPx(getResources(), 10);
+    //文字左右两边的最小间距
+    private int titlePadding = DensityUtils.dpToPx(getResources(), 2);
+    //布局时测量文字宽度的画笔，省略文字需要 TextPaint
+    private TextPaint mTitleMeasurePaint;
+    //未读消息数默认文字大小
+    private int defaultMsgTextSize = DensityUtils.dpToPx(getResources(), 9);
+    //未读消息数为 99+ 时的默认文字大小
+    private int defaultMsgOverflowTextSize = DensityUtils.dpToPx(getResources(), 8);
+    //未读消息数圆圈的描边宽度
+    private int msgStrokeWidth = DensityUtils.dpToPx(getResources(), 1);
+    //未读消息数的文字画笔，布局时用来计算圆圈的半径
+    private Paint mMsgTextPaint;
+    //未读消息的绘制
+    private BadgeRenderer badgeRenderer;
+    //导航栏轮廓的画笔，颜色为背景颜色
+    private Paint mOutlinePaint;
+    //导航栏轮廓：矩形背景加上上浮Item露出顶部的圆弧，尺寸或菜单变化时重建
+    private final Path outlinePath = new Path();
+    private final RectF mOutlineOval = new RectF();
+    //轮廓右边，可以滚动时为所有Item的总宽度
+    private int outlineRight;
+    //矩形顶边与上浮圆弧连接处的过渡长度
+    private int outlineFillet = DensityUtils.dpToPx(getResources(), 4);
+    //顶部阴影的高度，画在轮廓以上保留的区域内，0 时不画
+    private int shadowHeight;
+    //顶部阴影的颜色
+    private int shadowColor = DEFAULT_SHADOW_COLOR;
+    //顶部阴影的位图缓存，只包含轮廓以外的阴影
+    private Bitmap shadowBitmap;
+    private Canvas shadowCanvas;
+    private Paint mShadowPaint;
+    private Paint mShadowClearPaint;
+    //阴影是否需要重画
+    private boolean shadowDirty = true;
+    //测量文字用的区域
+    private final Rect mTextBounds = new Rect();
+    //测量文字行高时复用
+    private final Paint.FontMetricsInt mFontMetrics = new Paint.FontMetricsInt();
+    //wrap_content 时计算高度使用的图标大小
+    private int defaultIconSize = DensityUtils.dpToPx(getResources(), 24);
+    //测量内容的版本，菜单、上浮距离、最小宽度变化时加一
+    private int measureVersion;
+    //上一次测量时的 MeasureSpec、内边距和内容版本，都没有变化时直接使用上一次的结果
+    private int measuredVersion = -1;
+    private int measuredWidthSpec;
+    private int measuredHeightSpec;
+    private int measuredPaddingLeft;
+    private int measuredPaddingTop;
+    private int measuredPaddingRight;
+    private int measuredPaddingBottom;
+    //已经从 topMargin 中减去的上浮距离及对应的布局参数，再次设置时先恢复，避免 topMargin 累加
+    private ViewGroup.LayoutParams floatingMarginParams;
+    private int floatingMarginOffset;
+    //选中时的文字颜色
+    private int checkedTextColor;
+    //未选中时的文字颜色
+    private int normalTextColor;
+    //以下为布局时计算好的每个Item的绘制数据，绘制时直接读取，不再重复计算
+    //图标区域
+    private int[] iconLeft = new int[0];
+    private int[] iconTop = new int[0];
+    private int[] iconRight = new int[0];
+    private int[] iconBottom = new int[0];
+    //文字位置及大小，文字过长时为缩小后的大小
+    private int[] textX = new int[0];
+    private int[] textY = new int[0];
+    private int[] textSize = new int[0];
+    //适配Item宽度后的文字，缩小到最小文字大小仍然放不下时末尾省略
+    private String[] textTitle = new String[0];
+    //未读消息数的圆心、半径及文字大小
+    private int[] msgX = new int[0];
+    private int[] msgY = new int[0];
+    private int[] msgRadius = new int[0];
+    private int[] msgTextSize = new int[0];
+    private int[] msgOverflowTextSize = new int[0];
+    //小红点的圆心
+    private int[] dotX = new int[0];
+    private int[] dotY = new int[0];
+    //上浮背景圆的圆心X，圆心Y与半径所有Item相同
+    private int[] floatingX = new int[0];
+    private int floatingY;
+    private int floatingRadius;
+    //上浮背景圆半径的平方，用于触摸时判断是否在圆内
+    private int floatingRadiusSquare;
+    //每个Item需要重绘的区域，包含超出Item的未读消息和上浮背景
+    private int[] dirtyLeft = new int[0];
+    private int[] dirtyTop = new int[0];
+    private int[] dirtyRight = new int[0];
+    private int[] dirtyBottom = new int[0];
+    //绘制时的裁剪区域
+    private final Rect mClipBounds = new Rect();
+    //批量修改时合并的重绘区域
+    private final Rect mDirtyUnion = new Rect();
+    //是否开启静态内容的位图缓存
+    private boolean renderCacheEnabled;
+    //静态内容（背景、上浮背景、未选中的Item）的位图缓存，每帧只需要再画选中的Item和未读消息
+    private Bitmap renderCache;
+    private Canvas renderCacheCanvas;
+    //位图缓存是否需要重建，尺寸、菜单、颜色变化时重建
+    private boolean renderCacheDirty = true;
+    //是否把图标预先栅格化到图集中
+    private boolean iconAtlasEnabled;
+    //图标图集，开启时才创建
+    private IconAtlas iconAtlas;
+    //选中切换动画的默认时长
+    private static final int DEFAULT_ANIM_DURATION = 200;
+    //选中切换动画的进度
+    private final SelectionAnimator selectionAnimator = new SelectionAnimator();
+    //选中切换动画的宿主回调，收集每帧变化的Item的重绘区域
+    private final SelectionAnimator.Host selectionHost = new SelectionAnimator.Host() {
+        @Override
+        public boolean isItemChecked(int position) {
+            return position < items.size && items.isChecked(position);
+        }
+
+        @Override
+        public void onItemAnimated(int position, boolean settled) {
+            if (position < dirtyLeft.length) {
+                mDirtyUnion.union(dirtyLeft[position], dirtyTop[position], dirtyRight[position], dirtyBottom[position]);
+            }
+            //动画结束并且未选中的Item重新画回位图缓存
+            if (settled && !isItemChecked(position)) {
+                updateRenderCache(position);
+            }
+        }
+
+        @Override
+        public void onIndicatorAnimated(float from, int to) {
+            if (indicatorHeight > 0 && mItemWidth > 0) {
+                //起点可能在两个Item之间，向外取整覆盖起点处的整个指示器
+                int left = getPaddingLeft() + Math.min((int) Math.floor(from), to) * mItemWidth;
+                int right = getPaddingLeft() + (Math.max((int) Math.ceil(from), to) + 1) * mItemWidth;
+                mDirtyUnion.union(left, mHeight - indicatorHeight, right, mHeight);
+            }
+        }
+    };
+    //驱动选中切换动画的帧回调，API 16 以上才有 Choreographer，使用时再创建
+    private Choreographer.FrameCallback selectionFrameCallback;
+    //是否已经安排了下一帧的动画
+    private boolean selectionFrameScheduled;
+    //选中指示器的高度，0 时不显示
+    private int indicatorHeight;
+    //选中指示器的颜色，未设置时使用选中的文字颜色
+    private int indicatorColor;
+    private boolean indicatorColorSet;
+    //选中指示器的画笔
+    private Paint mIndicatorPaint;
+    //渲染统计，开启后才创建，只在主线程累加
+    private RenderStats renderStats;
+    //非滚动模式下最多显示的Item数量
+    private static final int MAX_FIXED_ITEMS = 5;
+    //是否开启滚动模式，开启后不再限制Item数量，Item宽度不小于 minItemWidth，放不下时可以横向滚动
+    private boolean scrollable;
+    //滚动模式下Item的最小宽度
+    private int minItemWidth = DensityUtils.dpToPx(getResources(), 64);
+    //最大滚动距离，所有Item都能显示时为 0
+    private int maxScrollX;
+    //惯性滚动，开启滚动模式时创建
+    private OverScroller scroller;
+    //计算抬起手指时的滑动速度，第一次滑动时创建
+    private VelocityTracker velocityTracker;
+    //手指按下的位置和上一次移动的位置
+    private float touchDownX;
+    private float lastTouchX;
+    //是否正在拖动
+    private boolean dragging;
+    //按下时是否停止了惯性滚动，这次抬起不算点击
+    private boolean downStoppedFling;
+    //拖动的最小距离和惯性滚动的速度范围
+    private int touchSlop;
+    private int minFlingVelocity;
+    private int maxFlingVelocity;
+    //当前可见的第一个和最后一个Item，绘制时只遍历这个范围
+    private int firstVisible;
+    private int lastVisible = -1;
 
     public BottomNavigationBar(Context context) {
         super(context);
@@ -108,27 +410,204 @@ public class BottomNavigationBar extends View {
     }
 
     /**
-     * 设置选中
+     * 设置重复选中的监听事件，用户点击当前已选中的Item时回调，不会再回调 onItemSelected
+     *
+     * @param onItemReselectedListener
+     */
+    public void setOnItemReselectedListener(OnItemReselectedListener onItemReselectedListener) {
+        this.onItemReselectedListener = onItemReselectedListener;
+    }
+
+    /**
+     * 设置选中，位置与当前选中位置相同时不会回调
      *
      * @param position 选中位置
      */
     public void setSelected(int position) {
-        Item item = itemList.get(position);
-        if (item.checkable) {
-            if (checkedPosition >= 0) {
-                itemList.get(checkedPosition).checked = false;
+        select(position, SOURCE_PROGRAMMATIC);
+    }
+
+    /**
+     * 根据菜单id设置选中，位置与当前选中位置相同时不会回调
+     *
+     * @param id 菜单id，如 R.id.tab1
+     * @return 菜单中是否有这个id
+     */
+    public boolean setSelectedById(@IdRes int id) {
+        int position = items.indexOf(id);
+        if (position < 0) {
+            return false;
+        }
+        select(position, SOURCE_PROGRAMMATIC);
+        return true;
+    }
+
+    /**
+     * 根据菜单id获取Item
+     *
+     * @param id 菜单id，如 R.id.tab1
+     * @return 菜单中没有这个id时返回 null
+     */
+    public Item getItemById(@IdRes int id) {
+        int position = items.indexOf(id);
+        return position < 0 ? null : items.view(position);
+    }
+
+    /**
+     * 根据菜单id设置Item是否可以点击，禁用的Item半透明显示，点击时不会选中也不会回调，
+     * 仍然可以通过 {@link #setSelected(int)} 选中
+     *
+     * @param id      菜单id，如 R.id.tab1
+     * @param enabled 是否可以点击
+     * @return 菜单中是否有这个id
+     */
+    public boolean setItemEnabledById(@IdRes int id, boolean enabled) {
+        int position = items.indexOf(id);
+        if (position < 0) {
+            return false;
+        }
+        if (items.isEnabled(position) != enabled) {
+            items.setEnabled(position, enabled);
+            updateRenderCache(position);
+            invalidateItem(position);
+        }
+        return true;
+    }
+
+    /**
+     * 选中某一个Item，并根据选中来源和当前状态决定回调：
+     * 初始选中只在菜单设置后的第一次布局时分发一次；
+     * 位置不变时不回调 onItemSelected，用户点击时回调 onItemReselected；
+     * 不可选中的Item每次都回调 onItemSelected
+     *
+     * @param position 选中位置
+     * @param source   选中来源
+     */
+    private void select(int position, int source) {
+        if (position < 0 || position >= items.size) {
+            //菜单还未加载完成时，先记录下来，加载完成后再选中
+            if (menuLoading) {
+                pendingSelection = position;
+            }
+            return;
+        }
+        boolean checkable = items.isCheckable(position);
+        if (selectionState == SELECTION_DISPATCHED && checkable && items.isChecked(position) && position == checkedPosition) {
+            if (source == SOURCE_USER && onItemReselectedListener != null) {
+                onItemReselectedListener.onItemReselected(items.view(position), position);
+            }
+            return;
+        }
+        if (checkable) {
+            int oldPosition = checkedPosition;
+            boolean animate = source != SOURCE_INITIAL && source != SOURCE_RESTORED && source != SOURCE_PAGER
+                    && selectionAnimator.isEnabled()
+                    && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN;
+            if (oldPosition >= 0 && oldPosition < items.size && oldPosition != position) {
+                items.setChecked(oldPosition, false);
+                if (!animate) {
+                    selectionAnimator.snap(oldPosition, false);
+                }
+                updateRenderCache(oldPosition);
+                invalidateItem(oldPosition);
             }
-            item.checked = true;
+            items.setChecked(position, true);
             checkedPosition = position;
+            if (animate) {
+                selectionAnimator.moveIndicator(position);
+                startSelectionAnimation();
+            } else {
+                selectionAnimator.snap(position, true);
+                selectionAnimator.snapIndicator(position);
+                invalidateIndicator();
+            }
+            updateRenderCache(position);
+            scrollToItem(position, source != SOURCE_INITIAL && source != SOURCE_RESTORED);
         }
-        if (onItemSelectedListener != null) {
-            onItemSelectedListener.onItemSelected(itemList.get(position), position);
+        selectionState = SELECTION_DISPATCHED;
+        if (source != SOURCE_RESTORED && onItemSelectedListener != null) {
+            onItemSelectedListener.onItemSelected(items.view(position), position);
         }
-        postInvalidate();
+        invalidateItem(position);
+    }
+
+    /**
+     * 关联 ViewPager，第 i 个页面对应第 i 个Item：滑动时选中指示器、文字颜色和图标跟随页面偏移连续变化，
+     * 页面切换时选中对应的Item，点击可以选中的Item时切换到对应的页面
+     *
+     * @param viewPager 为 null 时取消关联
+     */
+    public void setupWithViewPager(ViewPager viewPager) {
+        if (this.viewPager != null) {
+            this.viewPager.removeOnPageChangeListener(pageChangeListener);
+        }
+        setPageScrollOffset(-1, 0f);
+        this.viewPager = viewPager;
+        if (viewPager == null) {
+            return;
+        }
+        viewPager.addOnPageChangeListener(pageChangeListener);
+        if (selectionState == SELECTION_PENDING && !menuLoading) {
+            //还没有分发初始选中，第一次布局时选中当前页面
+            checkedPosition = viewPager.getCurrentItem();
+        } else {
+            select(viewPager.getCurrentItem(), SOURCE_PAGER);
+        }
+    }
+
+    /**
+     * 设置页面滑动的偏移，每帧调用，不分配对象，只重绘正在混合的两个Item。
+     * {@link #setupWithViewPager(ViewPager)} 会自动调用；其他翻页控件（如 ViewPager2）可以在滑动回调中调用，
+     * 并在页面切换时调用 {@link #setSelected(int)}
+     *
+     * @param position 左边页面的位置，<0 时结束滑动
+     * @param offset   向右边页面滑动的偏移，0 到 1，为 0 时结束滑动
+     */
+    public void setPageScrollOffset(int position, float offset) {
+        int count = Math.min(items.size, dirtyLeft.length);
+        if (position < 0 || position + 1 >= count || offset <= 0f) {
+            position = -1;
+            offset = 0f;
+        }
+        int oldPosition = selectionAnimator.getScrollPosition();
+        if (position < 0 && oldPosition < 0) {
+            return;
+        }
+        if (oldPosition < 0 || position < 0) {
+            //开始或结束滑动时，其他Item的选中状态和指示器也会变化，重绘一次整个导航栏
+            finishSelectionAnimation();
+            selectionAnimator.setScroll(position, offset);
+            renderCacheDirty = true;
+            invalidate();
+            return;
+        }
+        mDirtyUnion.setEmpty();
+        unionScrollItems(oldPosition);
+        selectionAnimator.setScroll(position, offset);
+        if (position != oldPosition) {
+            //混合的两个Item变化时，离开的Item画回位图缓存，新的Item从位图缓存中去掉
+            updateRenderCache(oldPosition);
+            updateRenderCache(oldPosition + 1);
+            updateRenderCache(position);
+            updateRenderCache(position + 1);
+            unionScrollItems(position);
+        }
+        invalidateDirtyUnion();
     }
 
     /**
-     * 设置未读消息数
+     * 把滑动中混合的两个Item的重绘区域合并到 mDirtyUnion 中，选中指示器也在这个区域内
+     *
+     * @param position 左边Item的位置
+     */
+    private void unionScrollItems(int position) {
+        for (int i = position; i <= position + 1 && i < dirtyLeft.length; i++) {
+            mDirtyUnion.union(dirtyLeft[i], dirtyTop[i], dirtyRight[i], dirtyBottom[i]);
+        }
+    }
+
+    /**
+     * 设置未读消息数，可以在任意线程调用，非主线程的修改会合并到下一帧一起重绘
      *
      * @param position 未读消息数的位置
      * @param count    未读消息数量 <0 是显示为小红点，没有数字
@@ -137,9 +616,146 @@ public class BottomNavigationBar extends View {
      *                 >=100 时显示 99+
      */
     public void setMsgCount(int position, int count) {
-        if (position < itemList.size()) {
-            itemList.get(position).msgCount = count;
-            postInvalidate();
+        if (badgeStore.write(position, count)) {
+            onMsgCountsWritten();
+        }
+    }
+
+    /**
+     * 根据菜单id设置未读消息数，可以在任意线程调用，查找位置不需要遍历菜单
+     *
+     * @param id    菜单id，如 R.id.tab1
+     * @param count 未读消息数量，取值同 {@link #setMsgCount(int, int)}
+     * @return 当前菜单中是否有这个id，菜单还未加载完成时返回 false
+     */
+    public boolean setMsgCountById(@IdRes int id, int count) {
+        int position = publishedItems.indexOf(id);
+        if (position < 0) {
+            return false;
+        }
+        setMsgCount(position, count);
+        return true;
+    }
+
+    /**
+     * 批量设置未读消息数，只有数量变化的Item会被重绘，并且只触发一次重绘，可以在任意线程调用
+     *
+     * @param counts 按位置排列的未读消息数，取值同 {@link #setMsgCount(int, int)}，
+     *               长度超过Item数量的部分会被忽略
+     */
+    public void setMsgCounts(int[] counts) {
+        for (int i = 0; i < counts.length; i++) {
+            badgeStore.write(i, counts[i]);
+        }
+        onMsgCountsWritten();
+    }
+
+    /**
+     * 批量设置未读消息数，只有数量变化的Item会被重绘，并且只触发一次重绘，可以在任意线程调用
+     *
+     * @param counts key 为Item的位置，value 为未读消息数，取值同 {@link #setMsgCount(int, int)}
+     */
+    public void setMsgCounts(SparseIntArray counts) {
+        for (int i = 0; i < counts.size(); i++) {
+            badgeStore.write(counts.keyAt(i), counts.valueAt(i));
+        }
+        onMsgCountsWritten();
+    }
+
+    /**
+     * 未读消息数写入后，主线程立即处理，其他线程安排在下一帧处理，多次写入只处理一次
+     */
+    private void onMsgCountsWritten() {
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            drainMsgCounts();
+        } else if (badgeStore.requestDrain()) {
+            MAIN_HANDLER.post(scheduleMsgCountDrain);
+        }
+    }
+
+    /**
+     * 在主线程取出所有变化的未读消息数，并只触发一次重绘
+     */
+    private void drainMsgCounts() {
+        mDirtyUnion.setEmpty();
+        badgeStore.drain(msgCountConsumer);
+        invalidateDirtyUnion();
+    }
+
+    /**
+     * 修改未读消息数，数量变化时把Item的重绘区域合并到 mDirtyUnion 中
+     *
+     * @param position Item 的位置
+     * @param count    未读消息数
+     */
+    private void applyMsgCount(int position, int count) {
+        if (items.msgCounts[position] == count) {
+            return;
+        }
+        items.msgCounts[position] = count;
+        if (position < dirtyLeft.length) {
+            mDirtyUnion.union(dirtyLeft[position], dirtyTop[position], dirtyRight[position], dirtyBottom[position]);
+        } else {
+            //还没有布局，重绘整个View
+            mDirtyUnion.set(0, 0, getWidth(), getHeight());
+        }
+    }
+
+    /**
+     * 重绘 mDirtyUnion 中合并的区域，区域为空时不重绘
+     */
+    private void invalidateDirtyUnion() {
+        if (!mDirtyUnion.isEmpty()) {
+            postInvalidateRect(mDirtyUnion.left, mDirtyUnion.top, mDirtyUnion.right, mDirtyUnion.bottom);
+        }
+    }
+
+    /**
+     * 开始选中切换动画，每帧由 Choreographer 回调推进，只重绘进度变化的Item和指示器，
+     * 所有Item到达最终状态后停止回调
+     */
+    private void startSelectionAnimation() {
+        if (selectionFrameScheduled) {
+            return;
+        }
+        if (selectionFrameCallback == null) {
+            selectionFrameCallback = new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    selectionFrameScheduled = false;
+                    mDirtyUnion.setEmpty();
+                    boolean running = selectionAnimator.step(frameTimeNanos, selectionHost);
+                    invalidateDirtyUnion();
+                    if (running) {
+                        selectionFrameScheduled = true;
+                        Choreographer.getInstance().postFrameCallback(this);
+                    }
+                }
+            };
+        }
+        selectionAnimator.start(System.nanoTime());
+        selectionFrameScheduled = true;
+        Choreographer.getInstance().postFrameCallback(selectionFrameCallback);
+    }
+
+    /**
+     * 停止选中切换动画，所有Item直接到达最终状态
+     */
+    private void finishSelectionAnimation() {
+        if (selectionFrameScheduled) {
+            Choreographer.getInstance().removeFrameCallback(selectionFrameCallback);
+            selectionFrameScheduled = false;
+        }
+        selectionAnimator.finish(selectionHost);
+        renderCacheDirty = true;
+    }
+
+    /**
+     * 重绘选中指示器所在的区域
+     */
+    private void invalidateIndicator() {
+        if (indicatorHeight > 0) {
+            postInvalidateRect(getScrollX(), mHeight - indicatorHeight, getScrollX() + mWidth, mHeight);
         }
     }
 
@@ -151,9 +767,111 @@ public class BottomNavigationBar extends View {
      */
     public void setMenu(@MenuRes int menuRes) {
         this.menuRes = menuRes;
+        this.generatedMenu = null;
+        menuGeneration++;
+        menuLoading = false;
+        pendingMsgCounts = null;
+        pendingSelection = -1;
         parseXml(menuRes);
+        onMenuChanged();
+    }
+
+    /**
+     * 设置构建时编译好的 Menu 菜单，不需要解析 xml
+     *
+     * @param menu 由 menu-compiler.gradle 生成的菜单数据
+     */
+    public void setMenu(GeneratedMenu menu) {
+        this.menuRes = menu.getMenuRes();
+        this.generatedMenu = menu;
+        menuGeneration++;
+        menuLoading = false;
+        pendingMsgCounts = null;
+        pendingSelection = -1;
+        long start = System.nanoTime();
+        ParsedMenu parsed = MenuCache.obtain(getResources(), menu, itemIconTintRes);
+        recordMenuParse(System.nanoTime() - start);
+        applyMenu(parsed);
+        onMenuChanged();
+    }
+
+    /**
+     * 异步设置Menu 菜单资源文件，在 executor 中解析 xml、加载并着色图标，
+     * 加载期间只绘制背景，加载完成后在主线程替换菜单并重绘一次。
+     * 加载完成前设置的选中位置和未读消息数会在加载完成后生效
+     *
+     * @param menuRes  菜单资源文件
+     * @param executor 解析菜单的线程池
+     */
+    public void setMenuAsync(@MenuRes final int menuRes, Executor executor) {
+        this.menuRes = menuRes;
+        this.generatedMenu = null;
+        final int generation = ++menuGeneration;
+        final Resources resources = getResources();
+        final ColorStateList iconTint = itemIconTintRes;
+        ParsedMenu cached = MenuCache.peek(resources, menuRes, iconTint);
+        if (cached != null || menuRes == 0) {
+            onMenuLoaded(cached);
+            return;
+        }
+        menuLoading = true;
+        menuExecutor = executor;
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                long start = System.nanoTime();
+                final ParsedMenu menu = MenuCache.obtain(resources, menuRes, iconTint);
+                final long parseNanos = System.nanoTime() - start;
+                MAIN_HANDLER.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        recordMenuParse(parseNanos);
+                        if (generation != menuGeneration) {
+                            return;
+                        }
+                        onMenuLoaded(menu);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * 异步加载的菜单准备好或已经在缓存中时，在主线程替换菜单，并应用加载期间设置的选中位置和未读消息数
+     *
+     * @param menu
+     */
+    private void onMenuLoaded(ParsedMenu menu) {
+        menuLoading = false;
+        boolean restored = restoredSelection;
+        applyMenu(menu);
+        restoredSelection = restored;
+        if (pendingSelection >= 0 && pendingSelection < items.capacity) {
+            checkedPosition = pendingSelection;
+        }
+        pendingSelection = -1;
+        if (pendingMsgCounts != null) {
+            for (int i = 0; i < pendingMsgCounts.size(); i++) {
+                int position = pendingMsgCounts.keyAt(i);
+                if (position >= 0 && position < items.capacity) {
+                    items.msgCounts[position] = pendingMsgCounts.valueAt(i);
+                }
+            }
+            pendingMsgCounts = null;
+        }
+        onMenuChanged();
+    }
+
+    /**
+     * 替换菜单后重新测量和布局；已经布局过时直接分发新菜单的初始选中，不需要等待下一次布局
+     */
+    private void onMenuChanged() {
         format();
-        postInvalidate();
+        requestLayout();
+        invalidate();
+        if (ViewCompat.isLaidOut(this)) {
+            dispatchInitialSelection();
+        }
     }
 
     /**
@@ -163,393 +881,1371 @@ public class BottomNavigationBar extends View {
      */
     public void setItemIconTint(@DrawableRes @ColorRes int resId) {
         this.itemIconTintRes = ResourcesCompat.getColorStateList(getResources(), resId, null);
-        parseXml(menuRes);
-        format();
+        if (menuLoading) {
+            //正在加载的菜单使用的是旧的颜色，用新的颜色重新异步加载，不在主线程解析
+            setMenuAsync(menuRes, menuExecutor);
+        } else {
+            retintIcons(menuRes);
+        }
+        renderCacheDirty = true;
+        if (iconAtlas != null) {
+            iconAtlas.invalidate();
+        }
+        postInvalidate();
+    }
+
+    /**
+     * 设置Item 菜单的文字颜色状态列表
+     *
+     * @param resId 文字颜色状态的资源文件
+     */
+    public void setItemColorStateList(@DrawableRes @ColorRes int resId) {
+        this.itemColorStateList =  ResourcesCompat.getColorStateList(getResources(), resId, null);
+        updateTextColors();
+        renderCacheDirty = true;
+        postInvalidate();
+    }
+
+    /**
+     * 设置是否开启浮动
+     *
+     * @param floatingEnable
+     */
+    public void setFloatingEnable(boolean floatingEnable) {
+        if (this.floatingEnable == floatingEnable) {
+            return;
+        }
+        this.floatingEnable = floatingEnable;
+        computeItemLayout();
+        applyFloatingOffset();
+        postInvalidate();
+    }
+
+    /**
+     * 设置是否开启静态内容的位图缓存。开启后背景、上浮背景和未选中的Item只在尺寸、菜单或颜色变化时
+     * 绘制一次到位图中，每帧只绘制位图以及选中的Item和未读消息，会额外占用一张与View同样大小的位图
+     *
+     * @param renderCacheEnabled
+     */
+    public void setRenderCacheEnabled(boolean renderCacheEnabled) {
+        if (this.renderCacheEnabled == renderCacheEnabled) {
+            return;
+        }
+        this.renderCacheEnabled = renderCacheEnabled;
+        if (!renderCacheEnabled) {
+            releaseRenderCache();
+        }
+        renderCacheDirty = true;
         postInvalidate();
     }
 
     /**
-     * 设置Item 菜单的文字颜色状态列表
-     *
-     * @param resId 文字颜色状态的资源文件
+     * 设置是否开启图标图集。开启后测量完成时把每个Item的选中和未选中图标按实际像素大小栅格化到一张位图中，
+     * 绘制时只画位图中对应的区域，适合 VectorDrawable 或尺寸较大的图片，只在尺寸、屏幕密度或图标颜色变化时重建
+     *
+     * @param iconAtlasEnabled
+     */
+    public void setIconAtlasEnabled(boolean iconAtlasEnabled) {
+        if (this.iconAtlasEnabled == iconAtlasEnabled) {
+            return;
+        }
+        this.iconAtlasEnabled = iconAtlasEnabled;
+        if (iconAtlasEnabled) {
+            iconAtlas = new IconAtlas();
+        } else if (iconAtlas != null) {
+            iconAtlas.release();
+            iconAtlas = null;
+        }
+        renderCacheDirty = true;
+        postInvalidate();
+    }
+
+    /**
+     * 设置未读消息的绘制，可以替换默认的红色圆圈样式，绘制范围不能超出传入的圆形和 1dp 的描边
+     *
+     * @param badgeRenderer 为 null 时恢复默认样式
+     */
+    public void setBadgeRenderer(BadgeRenderer badgeRenderer) {
+        if (this.badgeRenderer instanceof DefaultBadgeRenderer) {
+            ((DefaultBadgeRenderer) this.badgeRenderer).clear();
+        }
+        this.badgeRenderer = badgeRenderer != null ? badgeRenderer
+                : new DefaultBadgeRenderer(Color.RED, Color.WHITE, Color.WHITE, msgStrokeWidth);
+        ensureBadgeCapacity();
+        postInvalidate();
+    }
+
+    /**
+     * 默认样式的位图缓存按菜单的Item数量扩容，滚动模式下Item很多时绘制也不会淘汰位图
+     */
+    private void ensureBadgeCapacity() {
+        if (badgeRenderer instanceof DefaultBadgeRenderer) {
+            ((DefaultBadgeRenderer) badgeRenderer).ensureCapacity(items.capacity);
+        }
+    }
+
+    /**
+     * 设置选中切换动画的时长，切换时文字颜色渐变、图标淡入淡出并轻微放大，选中指示器滑动到新的位置
+     *
+     * @param durationMillis 动画时长，毫秒，<=0 时关闭动画
+     */
+    public void setItemAnimDuration(int durationMillis) {
+        selectionAnimator.setDuration(durationMillis);
+        if (durationMillis <= 0) {
+            finishSelectionAnimation();
+            postInvalidate();
+        }
+    }
+
+    /**
+     * 设置选中指示器的高度，指示器画在选中Item的底部
+     *
+     * @param indicatorHeight 指示器高度，px，0 时不显示
+     */
+    public void setIndicatorHeight(int indicatorHeight) {
+        this.indicatorHeight = Math.max(indicatorHeight, 0);
+        postInvalidate();
+    }
+
+    /**
+     * 设置选中指示器的颜色，未设置时使用选中的文字颜色
+     *
+     * @param indicatorColor
+     */
+    public void setIndicatorColor(int indicatorColor) {
+        this.indicatorColor = indicatorColor;
+        this.indicatorColorSet = true;
+        mIndicatorPaint.setColor(indicatorColor);
+        invalidateIndicator();
+    }
+
+    /**
+     * 设置顶部阴影的高度，阴影只在轮廓变化时画一次到位图中。开启上浮时阴影画在上浮区域内，超出上浮距离的部分不显示；
+     * 没有上浮时在导航栏上方保留阴影高度的区域，与上浮一样从 topMargin 中减去，阴影叠在上方的内容上
+     *
+     * @param shadowHeight 阴影高度，像素，0 时不画阴影
+     */
+    public void setShadowHeight(int shadowHeight) {
+        shadowHeight = Math.max(shadowHeight, 0);
+        if (this.shadowHeight == shadowHeight) {
+            return;
+        }
+        this.shadowHeight = shadowHeight;
+        computeItemLayout();
+        applyFloatingOffset();
+        postInvalidate();
+    }
+
+    /**
+     * 设置顶部阴影的颜色
+     *
+     * @param shadowColor
+     */
+    public void setShadowColor(int shadowColor) {
+        this.shadowColor = shadowColor;
+        shadowDirty = true;
+        renderCacheDirty = true;
+        postInvalidate();
+    }
+
+    /**
+     * 设置是否开启渲染统计，开启后记录绘制、测量、布局、重绘请求、点击延迟和菜单加载耗时，
+     * 只累加计数，开销很小，可以在线上开启。关闭时清空统计
+     *
+     * @param enabled
+     */
+    public void setRenderStatsEnabled(boolean enabled) {
+        if (enabled && renderStats == null) {
+            renderStats = new RenderStats();
+        } else if (!enabled) {
+            renderStats = null;
+        }
+    }
+
+    /**
+     * 把当前的渲染统计复制到 out 中，没有开启统计时全部为 0，需要在主线程调用
+     *
+     * @param out 复制的目标，可以重复使用，不产生新的对象
+     * @return out
+     */
+    public RenderStats getRenderStats(RenderStats out) {
+        if (renderStats != null) {
+            renderStats.copyTo(out);
+        } else {
+            out.reset();
+        }
+        return out;
+    }
+
+    /**
+     * 获取当前渲染统计的快照，需要在主线程调用
+     *
+     * @return
+     */
+    public RenderStats getRenderStats() {
+        return getRenderStats(new RenderStats());
+    }
+
+    /**
+     * 清空渲染统计，通常在每次上报后调用
+     */
+    public void resetRenderStats() {
+        if (renderStats != null) {
+            renderStats.reset();
+        }
+    }
+
+    /**
+     * 记录一次菜单加载的耗时
+     *
+     * @param nanos
+     */
+    private void recordMenuParse(long nanos) {
+        if (renderStats != null) {
+            renderStats.recordMenuParse(nanos);
+        }
+    }
+
+    /**
+     * 统计重绘请求，postInvalidate() 最终也会调用到这里
+     */
+    @Override
+    public void invalidate() {
+        if (renderStats != null) {
+            renderStats.recordInvalidate();
+        }
+        super.invalidate();
+    }
+
+    /**
+     * 统计并请求重绘一块区域，局部重绘都通过这里，不需要覆盖已废弃的 invalidate(int, int, int, int)
+     *
+     * @param l 左边
+     * @param t 顶部
+     * @param r 右边
+     * @param b 底部
+     */
+    private void postInvalidateRect(int l, int t, int r, int b) {
+        if (renderStats != null) {
+            renderStats.recordInvalidate();
+        }
+        postInvalidate(l, t, r, b);
+    }
+
+    /**
+     * 设置是否开启滚动模式。开启后不再只显示前5个Item，每个Item的宽度不小于 {@link #setMinItemWidth(int)}，
+     * 放不下时可以横向滑动，绘制和点击只处理当前可见的Item。运行时切换不会重新加载菜单，选中位置和未读消息数保持不变
+     *
+     * @param scrollable
+     */
+    public void setScrollable(boolean scrollable) {
+        if (this.scrollable == scrollable) {
+            return;
+        }
+        this.scrollable = scrollable;
+        if (scrollable) {
+            ensureScroller();
+        } else {
+            scroller.forceFinished(true);
+            scrollTo(0, 0);
+        }
+        format();
+        requestLayout();
+        postInvalidate();
+    }
+
+    /**
+     * 设置滚动模式下Item的最小宽度
+     *
+     * @param minItemWidth 最小宽度，px
+     */
+    public void setMinItemWidth(int minItemWidth) {
+        this.minItemWidth = Math.max(minItemWidth, 1);
+        //wrap_content 时的宽度由最小宽度计算
+        invalidateMeasure();
+        requestLayout();
+        if (scrollable) {
+            computeItemLayout();
+            postInvalidate();
+        }
+    }
+
+    /**
+     * 设置上浮距离，不能超过导航栏高度的1/2
+     *
+     * @param floatingUp
+     */
+    public void setFloatingUp(int floatingUp) {
+        this.floatingUp = floatingUp;
+        computeItemLayout();
+        applyFloatingOffset();
+        postInvalidate();
+    }
+
+    /**
+     * 布局使用的上浮距离，关闭上浮时为0，设置的上浮距离保留在 floatingUp 中
+     *
+     * @return
+     */
+    private int getFloatingOffset() {
+        return floatingEnable ? floatingUp : 0;
+    }
+
+    /**
+     * 导航栏轮廓以上保留的高度：开启上浮时为上浮距离，没有上浮时为阴影高度
+     *
+     * @return
+     */
+    private int getTopInset() {
+        int floatingOffset = getFloatingOffset();
+        return floatingOffset > 0 ? floatingOffset : shadowHeight;
+    }
+
+    /**
+     * 是否按上浮的方式布局，没有上浮距离时上浮的Item与其他Item对齐
+     *
+     * @param position Item 的位置
+     * @return
+     */
+    private boolean isFloatingItem(int position) {
+        return getFloatingOffset() > 0 && items.isFloating(position);
+    }
+
+    /**
+     * 上浮距离或阴影高度变化后重新调整 topMargin，并重新测量高度
+     */
+    private void applyFloatingOffset() {
+        invalidateMeasure();
+        ViewGroup.LayoutParams params = getLayoutParams();
+        if (params != null) {
+            setLayoutParams(params);
+        } else {
+            requestLayout();
+        }
+    }
+
+
+    /**
+     * 获取布局参数
+     *
+     * @return
+     */
+    @Override
+    public ViewGroup.LayoutParams getLayoutParams() {
+        ViewGroup.LayoutParams params = super.getLayoutParams();
+        return params;
+    }
+
+    /**
+     * 设置布局参数
+     *
+     * @param params
+     */
+    @Override
+    public void setLayoutParams(ViewGroup.LayoutParams params) {
+        //高度为 wrap_content 或 match_parent 时为负数，不限制上浮距离
+        if (params.height > 0) {
+            floatingUp = floatingUp > params.height / 2 ? params.height / 2 : floatingUp;
+        }
+        int offset = getTopInset();
+        if (params instanceof LinearLayout.LayoutParams || params instanceof RelativeLayout.LayoutParams
+                || params instanceof FrameLayout.LayoutParams) {
+            ViewGroup.MarginLayoutParams layoutParams = (ViewGroup.MarginLayoutParams) params;
+            int topMargin = layoutParams.topMargin;
+            //同一个布局参数再次设置时，先恢复上一次减去的距离，多次设置结果相同
+            if (params == floatingMarginParams) {
+                topMargin += floatingMarginOffset;
+            }
+            layoutParams.topMargin = topMargin - offset;
+            floatingMarginParams = params;
+            floatingMarginOffset = offset;
+        }
+        invalidateMeasure();
+        super.setLayoutParams(params);
+    }
+
+    /**
+     * 初始化，获取该View的自定义属性，以及item 列表
+     *
+     * @param context      上下文
+     * @param attrs        属性
+     * @param defStyleAttr 默认样式
+     */
+    @SuppressLint("ResourceType")
+    private void init(Context context, AttributeSet attrs, int defStyleAttr) {
+        boolean menuAsync = false;
+        int animDuration = DEFAULT_ANIM_DURATION;
+        if (attrs != null) {
+            TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.StyleBottomLayout);
+            itemIconTintRes = ta.getColorStateList(R.styleable.StyleBottomLayout_itemIconTint);
+            itemColorStateList = ta.getColorStateList(R.styleable.StyleBottomLayout_itemTextColor);
+            if (itemIconTintRes == null) {
+                itemIconTintRes = ResourcesCompat.getColorStateList(getResources(), R.drawable.default_blue_tab_tint, null);
+            }
+            if (itemColorStateList == null) {
+                itemColorStateList = ResourcesCompat.getColorStateList(getResources(), R.drawable.default_blue_tab_tint, null);
+            }
+            floatingEnable = ta.getBoolean(R.styleable.StyleBottomLayout_floatingEnable, false);
+            floatingUp = (int) ta.getDimension(R.styleable.StyleBottomLayout_floatingUp, 0);
+            menuRes = ta.getResourceId(R.styleable.StyleBottomLayout_menu, 0);
+            menuAsync = ta.getBoolean(R.styleable.StyleBottomLayout_menuAsync, false);
+            renderCacheEnabled = ta.getBoolean(R.styleable.StyleBottomLayout_renderCache, false);
+            iconAtlasEnabled = ta.getBoolean(R.styleable.StyleBottomLayout_iconAtlas, false);
+            animDuration = ta.getInt(R.styleable.StyleBottomLayout_itemAnimDuration, DEFAULT_ANIM_DURATION);
+            indicatorHeight = ta.getDimensionPixelSize(R.styleable.StyleBottomLayout_indicatorHeight, 0);
+            indicatorColorSet = ta.hasValue(R.styleable.StyleBottomLayout_indicatorColor);
+            indicatorColor = ta.getColor(R.styleable.StyleBottomLayout_indicatorColor, 0);
+            scrollable = ta.getBoolean(R.styleable.StyleBottomLayout_scrollable, false);
+            minItemWidth = ta.getDimensionPixelSize(R.styleable.StyleBottomLayout_minItemWidth, minItemWidth);
+            shadowHeight = ta.getDimensionPixelSize(R.styleable.StyleBottomLayout_shadowHeight, 0);
+            shadowColor = ta.getColor(R.styleable.StyleBottomLayout_shadowColor, DEFAULT_SHADOW_COLOR);
+        }
+        selectionAnimator.setDuration(animDuration);
+        if (iconAtlasEnabled) {
+            iconAtlas = new IconAtlas();
+        }
+        ViewConfiguration configuration = ViewConfiguration.get(context);
+        touchSlop = configuration.getScaledTouchSlop();
+        minFlingVelocity = configuration.getScaledMinimumFlingVelocity();
+        maxFlingVelocity = configuration.getScaledMaximumFlingVelocity();
+        if (scrollable) {
+            ensureScroller();
+        }
+        initPaints();
+        if (menuAsync) {
+            setMenuAsync(menuRes, AsyncTask.THREAD_POOL_EXECUTOR);
+        } else {
+            parseXml(menuRes);
+        }
+        format();
+    }
+
+    /**
+     * 初始化绘制用的画笔，绘制时只修改颜色和大小，不再创建新的画笔
+     */
+    private void initPaints() {
+        mPaint = createTextPaint(defaultTitleSize, Color.BLACK);
+        mTitleMeasurePaint = new TextPaint(mPaint);
+        mMsgTextPaint = new Paint(mPaint);
+        mMsgTextPaint.setColor(Color.WHITE);
+        badgeRenderer = new DefaultBadgeRenderer(Color.RED, Color.WHITE, Color.WHITE, msgStrokeWidth);
+        mOutlinePaint = createPaint(Color.WHITE);
+        mIndicatorPaint = createPaint(indicatorColor);
+    }
+
+    /**
+     * 处理数据
+     */
+    private void format() {
+        //非滚动模式下只显示前5个，多余的Item保留在数组中，开启滚动模式后直接显示
+        items.size = scrollable ? items.capacity : Math.min(items.capacity, MAX_FIXED_ITEMS);
+        if (checkedPosition >= items.size && checkedPosition < items.capacity) {
+            //选中的Item被隐藏时取消选中，否则再选中其他Item时不会清除它，重新开启滚动模式后会有两个选中的Item
+            finishSelectionAnimation();
+            items.setChecked(checkedPosition, false);
+            selectionAnimator.snap(checkedPosition, false);
+            checkedPosition = -1;
+        }
+        invalidateMeasure();
+        if (getBackground() != null && getBackground() instanceof ColorDrawable) {
+            background = getBackground();
+        } else {
+            background = new ColorDrawable(Color.WHITE);
+        }
+        mOutlinePaint.setColor(((ColorDrawable) background).getColor());
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            mOutlinePaint.setColorFilter(background.getColorFilter());
+        }
+        computeItemLayout();
+    }
+
+    /**
+     * 更新文字选中与未选中的颜色
+     */
+    private void updateTextColors() {
+        if (itemColorStateList == null) {
+            itemColorStateList = ResourcesCompat.getColorStateList(getResources(), R.drawable.default_blue_tab_tint, null);
+        }
+        normalTextColor = itemColorStateList.getDefaultColor();
+        checkedTextColor = itemColorStateList.getColorForState(STATE_CHECKED, normalTextColor);
+        if (!indicatorColorSet) {
+            mIndicatorPaint.setColor(checkedTextColor);
+        }
+    }
+
+    /**
+     * 尺寸或菜单变化时，计算每个Item的图标区域、文字基线、未读消息位置和上浮背景圆，
+     * 结果保存在数组中，onDraw 只读取这些数据，不再分配对象
+     */
+    private void computeItemLayout() {
+        int topInset = getTopInset();
+        renderCacheDirty = true;
+        if (iconAtlas != null) {
+            iconAtlas.invalidate();
+        }
+        updateTextColors();
+        int count = items.size;
+        ensureLayoutCapacity(count);
+        if (count == 0 || mWidth == 0) {
+            maxScrollX = 0;
+            buildOutline();
+            return;
+        }
+        mItemWidth = computeItemWidth(mWidth, count);
+        maxScrollX = Math.max(0, getPaddingLeft() + count * mItemWidth + getPaddingRight() - mWidth);
+        if (getScrollX() > maxScrollX) {
+            scrollTo(maxScrollX, 0);
+        }
+        mItemHeight = mHeight > mItemWidth ? mItemWidth : mHeight;
+        floatingY = mItemHeight / 2;
+        floatingRadius = mItemHeight / 2;
+        floatingRadiusSquare = floatingRadius * floatingRadius;
+        for (int i = 0; i < count; i++) {
+            boolean floating = isFloatingItem(i);
+            int titleSize = items.titleSizes[i];
+            String title = items.titles[i];
+            int itemLeft = getPaddingLeft() + i * mItemWidth;
+            //图片文字内容宽度
+            int width = mItemHeight - topPadding - bottomPadding;
+            //图片文字内容高度
+            int height = mItemHeight - topPadding - bottomPadding;
+            floatingX[i] = itemLeft + (mItemWidth - width) / 2 + width / 2;
+            int startTop;
+            if (!floating) {
+                startTop = topPadding + topInset;
+                width = width - topInset;
+                height = height - topInset;
+            } else {
+                startTop = topPadding;
+            }
+            fitTitle(i, title, titleSize == 0 ? defaultTitleSize : titleSize, mItemWidth - titlePadding * 2);
+            if (!TextUtils.isEmpty(title)) {
+                mPaint.setTextSize(textSize[i]);
+                int textHeight = getTextHeight(textTitle[i], mPaint);
+                textX[i] = itemLeft + mItemWidth / 2;
+                textY[i] = startTop + height - textHeight / 4;//上边距+图片文字内容高度
+                width = height = height - textHeight - textTop;
+            }
+            iconLeft[i] = itemLeft + (mItemWidth - width) / 2;
+            iconTop[i] = startTop;
+            iconRight[i] = iconLeft[i] + width;
+            iconBottom[i] = floating ? topPadding + height : topPadding + height + topInset;
+            msgTextSize[i] = titleSize == 0 ? defaultMsgTextSize : titleSize;
+            msgOverflowTextSize[i] = titleSize == 0 ? defaultMsgOverflowTextSize : titleSize;
+            mMsgTextPaint.setTextSize(msgTextSize[i]);
+            int r = getTextWidth(MSG_COUNT_OVERFLOW, mMsgTextPaint) / 2 + 1;
+            msgRadius[i] = r;
+            msgX[i] = iconLeft[i] + width - r / 4;
+            msgY[i] = startTop + r - r / 3;
+            dotX[i] = iconLeft[i] + width - DOT_RADIUS;
+            dotY[i] = startTop + DOT_RADIUS;
+            //重绘区域：Item所在的格子，加上超出格子的未读消息圆圈和上浮背景圆
+            int msgTop = Math.min(msgY[i] - r, dotY[i] - DOT_RADIUS) - msgStrokeWidth;
+            //选中动画中图标放大后超出的部分
+            int pulse = (int) Math.ceil((iconBottom[i] - iconTop[i]) * SelectionAnimator.ICON_PULSE / 2);
+            dirtyLeft[i] = itemLeft;
+            dirtyTop[i] = Math.min(Math.min(floating ? floatingY - floatingRadius : startTop, msgTop), startTop - pulse);
+            dirtyRight[i] = Math.max(itemLeft + mItemWidth, msgX[i] + r + msgStrokeWidth);
+            dirtyBottom[i] = mHeight;
+        }
+        buildOutline();
+    }
+
+    /**
+     * 生成导航栏的轮廓：从上浮距离处开始的矩形，上浮的Item在顶边上露出一段圆弧，
+     * 顶边与圆弧的连接处用二次曲线平滑过渡。每帧只需要画这一个 Path，不再分别画背景和每个上浮圆。
+     * 异步加载的菜单还没有完成时只有矩形，作为占位的背景
+     */
+    private void buildOutline() {
+        outlinePath.rewind();
+        shadowDirty = true;
+        if (mWidth == 0) {
+            outlineRight = 0;
+            return;
+        }
+        int count = Math.min(items.size, floatingX.length);
+        outlineRight = count == 0 ? mWidth : Math.max(mWidth, getPaddingLeft() + count * mItemWidth + getPaddingRight());
+        float top = getTopInset();
+        float dy = top - floatingY;
+        outlinePath.moveTo(0, mHeight);
+        outlinePath.lineTo(0, top);
+        for (int i = 0; i < count; i++) {
+            //圆没有超出顶边时不需要圆弧
+            if (!isFloatingItem(i) || Math.abs(dy) >= floatingRadius) {
+                continue;
+            }
+            float cx = floatingX[i];
+            float dx = (float) Math.sqrt(floatingRadius * floatingRadius - dy * dy);
+            float fillet = Math.min(outlineFillet, dx);
+            //顶边与圆的左右交点的角度，从左交点顺时针经过圆的顶部到右交点
+            double start = Math.atan2(dy, -dx);
+            double sweep = Math.atan2(dy, dx) - start;
+            if (sweep < 0) {
+                sweep += Math.PI * 2;
+            }
+            double delta = Math.min(fillet / floatingRadius, sweep / 4);
+            double from = start + delta;
+            outlinePath.lineTo(cx - dx - fillet, top);
+            outlinePath.quadTo(cx - dx, top, (float) (cx + floatingRadius * Math.cos(from)),
+                    (float) (floatingY + floatingRadius * Math.sin(from)));
+            mOutlineOval.set(cx - floatingRadius, floatingY - floatingRadius, cx + floatingRadius, floatingY + floatingRadius);
+            outlinePath.arcTo(mOutlineOval, (float) Math.toDegrees(from), (float) Math.toDegrees(sweep - delta * 2), false);
+            outlinePath.quadTo(cx + dx, top, cx + dx + fillet, top);
+        }
+        outlinePath.lineTo(outlineRight, top);
+        outlinePath.lineTo(outlineRight, mHeight);
+        outlinePath.close();
+    }
+
+    /**
+     * 画出导航栏的轮廓和顶部阴影
+     *
+     * @param canvas
+     */
+    private void drawOutline(Canvas canvas) {
+        if (shadowDirty) {
+            rebuildShadow();
+        }
+        if (shadowBitmap != null) {
+            canvas.drawBitmap(shadowBitmap, 0, 0, null);
+        }
+        canvas.drawPath(outlinePath, mOutlinePaint);
+    }
+
+    /**
+     * 把轮廓的阴影画到位图中，只保留轮廓以外的部分，位图高度为轮廓以上保留的高度，尺寸不变时复用
+     */
+    private void rebuildShadow() {
+        int topInset = getTopInset();
+        if (shadowHeight <= 0 || topInset <= 0 || outlineRight <= 0) {
+            releaseShadow();
+            shadowDirty = false;
+            return;
+        }
+        if (shadowBitmap == null || shadowBitmap.getWidth() != outlineRight || shadowBitmap.getHeight() != topInset) {
+            releaseShadow();
+            shadowBitmap = Bitmap.createBitmap(outlineRight, topInset, Bitmap.Config.ARGB_8888);
+            shadowCanvas = new Canvas(shadowBitmap);
+        } else {
+            shadowBitmap.eraseColor(Color.TRANSPARENT);
+        }
+        if (mShadowPaint == null) {
+            mShadowPaint = createPaint(Color.BLACK);
+            mShadowClearPaint = createPaint(Color.BLACK);
+            mShadowClearPaint.setXfermode(new PorterDuffXfermode(PorterDuff.Mode.CLEAR));
+        }
+        mShadowPaint.setShadowLayer(shadowHeight, 0, 0, shadowColor);
+        shadowCanvas.drawPath(outlinePath, mShadowPaint);
+        shadowCanvas.drawPath(outlinePath, mShadowClearPaint);
+        shadowDirty = false;
+    }
+
+    /**
+     * 释放阴影的位图
+     */
+    private void releaseShadow() {
+        if (shadowBitmap != null) {
+            shadowBitmap.recycle();
+            shadowBitmap = null;
+            shadowCanvas = null;
+        }
+        shadowDirty = true;
+    }
+
+    /**
+     * 让文字适配Item的宽度，只在布局时测量一次：放得下时不变；放不下时按比例缩小文字，
+     * 缩小到最小文字大小仍然放不下时在末尾省略。结果保存在 textTitle 和 textSize 中，绘制时直接使用
+     *
+     * @param position Item 的位置
+     * @param title    文字
+     * @param size     文字大小
+     * @param maxWidth 可用的宽度
+     */
+    private void fitTitle(int position, String title, int size, int maxWidth) {
+        textTitle[position] = title;
+        textSize[position] = size;
+        if (TextUtils.isEmpty(title) || maxWidth <= 0) {
+            return;
+        }
+        mTitleMeasurePaint.setTextSize(size);
+        float width = mTitleMeasurePaint.measureText(title);
+        if (width <= maxWidth) {
+            return;
+        }
+        //文字宽度与文字大小成正比
+        int fitted = (int) (size * maxWidth / width);
+        if (fitted >= minTitleSize) {
+            textSize[position] = fitted;
+            return;
+        }
+        int min = Math.min(size, minTitleSize);
+        mTitleMeasurePaint.setTextSize(min);
+        textTitle[position] = TextUtils.ellipsize(title, mTitleMeasurePaint, maxWidth, TextUtils.TruncateAt.END).toString();
+        textSize[position] = min;
+    }
+
+    /**
+     * 计算每个Item的宽度，滚动模式下不小于最小宽度
+     *
+     * @param width 导航栏宽度
+     * @param count Item数量
+     * @return
+     */
+    private int computeItemWidth(int width, int count) {
+        if (count == 0) {
+            return 0;
+        }
+        int itemWidth = (width - getPaddingLeft() - getPaddingRight()) / count;
+        if (scrollable && itemWidth < minItemWidth) {
+            itemWidth = minItemWidth;
+        }
+        return itemWidth;
+    }
+
+    /**
+     * 只重绘某一个Item所在的区域
+     *
+     * @param position Item 的位置
+     */
+    private void invalidateItem(int position) {
+        if (position < 0 || position >= dirtyLeft.length) {
+            postInvalidate();
+            return;
+        }
+        postInvalidateRect(dirtyLeft[position], dirtyTop[position], dirtyRight[position], dirtyBottom[position]);
+    }
+
+    /**
+     * 保证布局数组的长度与Item数量一致
+     *
+     * @param count Item数量
+     */
+    private void ensureLayoutCapacity(int count) {
+        if (iconLeft.length == count) {
+            return;
+        }
+        iconLeft = new int[count];
+        iconTop = new int[count];
+        iconRight = new int[count];
+        iconBottom = new int[count];
+        textX = new int[count];
+        textY = new int[count];
+        textSize = new int[count];
+        textTitle = new String[count];
+        msgX = new int[count];
+        msgY = new int[count];
+        msgRadius = new int[count];
+        msgTextSize = new int[count];
+        msgOverflowTextSize = new int[count];
+        dotX = new int[count];
+        dotY = new int[count];
+        floatingX = new int[count];
+        dirtyLeft = new int[count];
+        dirtyTop = new int[count];
+        dirtyRight = new int[count];
+        dirtyBottom = new int[count];
+    }
+
+    /**
+     * 解析 menu 的 xml 的文件，得到相关的 导航栏菜单，解析结果来自进程内共享的缓存
+     *
+     * @param xmlRes
+     */
+    private void parseXml(int xmlRes) {
+        long start = System.nanoTime();
+        ParsedMenu menu = MenuCache.obtain(getResources(), xmlRes, itemIconTintRes);
+        recordMenuParse(System.nanoTime() - start);
+        applyMenu(menu);
+    }
+
+    /**
+     * 根据解析后的菜单创建导航菜单列表
+     *
+     * @param menu
+     */
+    private void applyMenu(ParsedMenu menu) {
+        if (menu == null) {
+            return;
+        }
+        selectionState = SELECTION_PENDING;
+        restoredSelection = false;
+        badgeStore.ensureCapacity(menu.size());
+        finishSelectionAnimation();
+        selectionAnimator.reset(menu.size());
+        items = ItemModel.from(menu, getResources());
+        publishedItems = items;
+        ensureBadgeCapacity();
+        if (menu.getCheckedPosition() >= 0) {
+            checkedPosition = menu.getCheckedPosition();
+        } else if (checkedPosition >= items.capacity) {
+            checkedPosition = 0;
+        }
+    }
+
+    /**
+     * 图标颜色变化时只替换图标，保留选中状态和未读消息数
+     *
+     * @param xmlRes
+     */
+    private void retintIcons(int xmlRes) {
+        long start = System.nanoTime();
+        ParsedMenu menu = generatedMenu != null
+                ? MenuCache.obtain(getResources(), generatedMenu, itemIconTintRes)
+                : MenuCache.obtain(getResources(), xmlRes, itemIconTintRes);
+        recordMenuParse(System.nanoTime() - start);
+        if (menu == null) {
+            return;
+        }
+        int count = Math.min(menu.size(), items.capacity);
+        for (int i = 0; i < count; i++) {
+            ParsedMenu.Entry entry = menu.getEntries().get(i);
+            items.setIcons(i, entry.newIcon(getResources()), entry.newDrawable(getResources()));
+        }
+    }
+
+
+    /**
+     * 当初始化布局以后，进行默认选中
+     *
+     * @param changed
+     * @param left
+     * @param top
+     * @param right
+     * @param bottom
+     */
+    @Override
+    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
+        super.onLayout(changed, left, top, right, bottom);
+        if (renderStats != null) {
+            renderStats.recordLayout();
+        }
+        dispatchInitialSelection();
+    }
+
+    /**
+     * 分发菜单的初始选中，只在菜单设置后的第一次布局时分发，之后的布局不会再回调
+     */
+    private void dispatchInitialSelection() {
+        if (selectionState == SELECTION_PENDING && checkedPosition >= 0 && checkedPosition < items.size) {
+            select(checkedPosition, restoredSelection ? SOURCE_RESTORED : SOURCE_INITIAL);
+            restoredSelection = false;
+        }
+    }
+
+    /**
+     * 保存选中位置、未读消息数、禁用的Item和上浮设置，配置变化后不需要再重新设置
+     *
+     * @return
+     */
+    @Override
+    protected Parcelable onSaveInstanceState() {
+        SavedState state = new SavedState(super.onSaveInstanceState());
+        state.checkedPosition = checkedPosition;
+        state.floatingEnable = floatingEnable;
+        state.floatingUp = floatingUp;
+        int count = items.capacity;
+        state.msgCounts = new int[count];
+        state.flags = new int[count];
+        for (int i = 0; i < count; i++) {
+            state.msgCounts[i] = items.msgCounts[i];
+            state.flags[i] = items.flags[i] & ItemModel.FLAG_ENABLED;
+        }
+        return state;
+    }
+
+    /**
+     * 在第一次布局前恢复保存的状态，直接写入数据，布局时选中恢复的位置，不回调 onItemSelected，
+     * 只需要一次测量、布局和绘制。菜单的Item数量与保存时不同时只恢复上浮设置
+     *
+     * @param state
+     */
+    @Override
+    protected void onRestoreInstanceState(Parcelable state) {
+        if (!(state instanceof SavedState)) {
+            super.onRestoreInstanceState(state);
+            return;
+        }
+        SavedState savedState = (SavedState) state;
+        super.onRestoreInstanceState(savedState.getSuperState());
+        floatingEnable = savedState.floatingEnable;
+        floatingUp = savedState.floatingUp;
+        int[] msgCounts = savedState.msgCounts;
+        if (menuLoading) {
+            //菜单加载完成后和加载前设置的数据一起生效
+            pendingSelection = savedState.checkedPosition;
+            if (pendingMsgCounts == null) {
+                pendingMsgCounts = new SparseIntArray(msgCounts.length);
+            }
+            for (int i = 0; i < msgCounts.length; i++) {
+                pendingMsgCounts.put(i, msgCounts[i]);
+            }
+            restoredSelection = true;
+        } else if (msgCounts.length == items.capacity) {
+            for (int i = 0; i < msgCounts.length; i++) {
+                items.msgCounts[i] = msgCounts[i];
+                items.setEnabled(i, (savedState.flags[i] & ItemModel.FLAG_ENABLED) != 0);
+            }
+            if (savedState.checkedPosition != checkedPosition || selectionState == SELECTION_PENDING) {
+                //已经分发过的选中需要先清除，布局时再选中恢复的位置
+                if (checkedPosition >= 0 && checkedPosition < items.capacity) {
+                    items.setChecked(checkedPosition, false);
+                    selectionAnimator.snap(checkedPosition, false);
+                }
+                checkedPosition = savedState.checkedPosition;
+                selectionState = SELECTION_PENDING;
+                restoredSelection = true;
+            }
+        }
+        format();
+        applyFloatingOffset();
+        invalidate();
+    }
+
+    /**
+     * 尺寸测量
+     *
+     * @param widthMeasureSpec
+     * @param heightMeasureSpec
+     */
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+        TraceUtils.beginSection(TraceUtils.SECTION_MEASURE);
+        try {
+            measureNavigation(widthMeasureSpec, heightMeasureSpec);
+        } finally {
+            TraceUtils.endSection();
+        }
+    }
+
+    /**
+     * 根据菜单和上浮距离测量尺寸。MeasureSpec、内边距和内容都没有变化时直接使用上一次的结果；
+     * wrap_content 时宽度为每个Item的最小宽度之和，高度由默认图标大小和文字行高计算；
+     * 上浮距离（没有上浮时为阴影高度）每次都加在测量出的高度上，不会累加
+     *
+     * @param widthMeasureSpec
+     * @param heightMeasureSpec
+     */
+    private void measureNavigation(int widthMeasureSpec, int heightMeasureSpec) {
+        if (measuredVersion == measureVersion && measuredWidthSpec == widthMeasureSpec
+                && measuredHeightSpec == heightMeasureSpec && measuredPaddingLeft == getPaddingLeft()
+                && measuredPaddingTop == getPaddingTop() && measuredPaddingRight == getPaddingRight()
+                && measuredPaddingBottom == getPaddingBottom()) {
+            setMeasuredDimension(mWidth, mHeight);
+            return;
+        }
+        if (renderStats != null) {
+            renderStats.recordMeasure();
+        }
+        int count = items.size;
+        topPadding = getPaddingTop();
+        bottomPadding = getPaddingBottom();
+        mWidth = resolveSize(getPaddingLeft() + count * minItemWidth + getPaddingRight(), widthMeasureSpec);
+        mHeight = resolveSize(getIntrinsicHeight(), heightMeasureSpec);
+        mHeight += getTopInset();
+        mItemWidth = computeItemWidth(mWidth, count);
+        mItemHeight = mHeight > mItemWidth ? mItemWidth : mHeight;
+        setMeasuredDimension(mWidth, mHeight);
+        measuredVersion = measureVersion;
+        measuredWidthSpec = widthMeasureSpec;
+        measuredHeightSpec = heightMeasureSpec;
+        measuredPaddingLeft = getPaddingLeft();
+        measuredPaddingTop = getPaddingTop();
+        measuredPaddingRight = getPaddingRight();
+        measuredPaddingBottom = getPaddingBottom();
+    }
+
+    /**
+     * wrap_content 时的高度：上下内边距、默认图标大小，有文字时再加上最大的文字行高和间距，不包含上浮距离
+     *
+     * @return
+     */
+    private int getIntrinsicHeight() {
+        int textHeight = 0;
+        for (int i = 0; i < items.size; i++) {
+            if (TextUtils.isEmpty(items.titles[i])) {
+                continue;
+            }
+            int size = items.titleSizes[i] == 0 ? defaultTitleSize : items.titleSizes[i];
+            mTitleMeasurePaint.setTextSize(size);
+            mTitleMeasurePaint.getFontMetricsInt(mFontMetrics);
+            textHeight = Math.max(textHeight, mFontMetrics.descent - mFontMetrics.ascent);
+        }
+        int height = getPaddingTop() + defaultIconSize + getPaddingBottom();
+        if (textHeight > 0) {
+            height += textTop + textHeight;
+        }
+        return Math.max(height, getSuggestedMinimumHeight());
+    }
+
+    /**
+     * 测量内容变化，下一次测量时重新计算
      */
-    public void setItemColorStateList(@DrawableRes @ColorRes int resId) {
-        this.itemColorStateList =  ResourcesCompat.getColorStateList(getResources(), resId, null);
-        postInvalidate();
+    private void invalidateMeasure() {
+        measureVersion++;
     }
 
     /**
-     * 设置是否开启浮动
+     * 尺寸变化后重新计算每个Item的绘制数据
      *
-     * @param floatingEnable
+     * @param w
+     * @param h
+     * @param oldw
+     * @param oldh
      */
-    public void setFloatingEnable(boolean floatingEnable) {
-        this.floatingEnable = floatingEnable;
-        postInvalidate();
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        computeItemLayout();
     }
 
+
     /**
-     * 设置上浮距离，不能超过导航栏高度的1/2
+     * 进行绘制
      *
-     * @param floatingUp
+     * @param canvas
      */
-    public void setFloatingUp(int floatingUp) {
-        this.floatingUp = floatingUp;
-        postInvalidate();
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        TraceUtils.beginSection(TraceUtils.SECTION_DRAW);
+        try {
+            if (renderStats == null) {
+                drawNavigation(canvas);
+            } else {
+                long start = System.nanoTime();
+                drawNavigation(canvas);
+                renderStats.recordDraw(System.nanoTime() - start);
+            }
+        } finally {
+            TraceUtils.endSection();
+        }
     }
 
-
     /**
-     * 获取布局参数
+     * 画出背景、所有导航菜单和选中指示器
      *
-     * @return
+     * @param canvas
      */
-    @Override
-    public ViewGroup.LayoutParams getLayoutParams() {
-        ViewGroup.LayoutParams params = super.getLayoutParams();
-        return params;
+    private void drawNavigation(Canvas canvas) {
+        //只重绘与裁剪区域相交的Item
+        if (!canvas.getClipBounds(mClipBounds)) {
+            return;
+        }
+        if (iconAtlas != null) {
+            iconAtlas.ensure(items, Math.min(items.size, iconLeft.length), iconLeft, iconTop, iconRight, iconBottom,
+                    getResources().getDisplayMetrics().densityDpi);
+        }
+        //可以滚动时位图缓存放不下所有Item，不使用缓存
+        if (renderCacheEnabled && maxScrollX == 0 && mWidth > 0 && mHeight > 0) {
+            drawWithRenderCache(canvas);
+            return;
+        }
+        //画背景和上浮Item的圆弧
+        drawOutline(canvas);
+        updateVisibleRange();
+        //画出可见的导航菜单
+        for (int i = firstVisible; i <= lastVisible; i++) {
+            if (isItemDirty(i)) {
+                drawItem(canvas, i);
+            }
+        }
+        drawIndicator(canvas);
     }
 
     /**
-     * 设置布局参数
+     * 画出选中指示器，动画中位于前后两个Item之间
      *
-     * @param params
+     * @param canvas
      */
-    @Override
-    public void setLayoutParams(ViewGroup.LayoutParams params) {
-        floatingUp = floatingUp > params.height / 2 ? params.height / 2 : floatingUp;
-        if (params instanceof LinearLayout.LayoutParams) {
-            LinearLayout.LayoutParams layoutParams = (LinearLayout.LayoutParams) params;
-            layoutParams.topMargin = layoutParams.topMargin - floatingUp;
-        } else if (params instanceof RelativeLayout.LayoutParams) {
-            RelativeLayout.LayoutParams layoutParams = (RelativeLayout.LayoutParams) params;
-            layoutParams.topMargin = layoutParams.topMargin - floatingUp;
-        } else if (params instanceof FrameLayout.LayoutParams) {
-            FrameLayout.LayoutParams layoutParams = (FrameLayout.LayoutParams) params;
-            layoutParams.topMargin = layoutParams.topMargin - floatingUp;
+    private void drawIndicator(Canvas canvas) {
+        if (indicatorHeight <= 0 || mItemWidth <= 0 || checkedPosition < 0 || checkedPosition >= items.size
+                || !items.isChecked(checkedPosition)) {
+            return;
         }
-        super.setLayoutParams(params);
+        float left = getPaddingLeft() + selectionAnimator.getIndicatorPosition() * mItemWidth + mItemWidth / 4f;
+        canvas.drawRect(left, mHeight - indicatorHeight, left + mItemWidth / 2f, mHeight, mIndicatorPaint);
     }
 
     /**
-     * 初始化，获取该View的自定义属性，以及item 列表
+     * 使用位图缓存绘制：先画静态内容的位图，再画选中的Item和未读消息
      *
-     * @param context      上下文
-     * @param attrs        属性
-     * @param defStyleAttr 默认样式
+     * @param canvas
      */
-    @SuppressLint("ResourceType")
-    private void init(Context context, AttributeSet attrs, int defStyleAttr) {
-        if (attrs != null) {
-            TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.StyleBottomLayout);
-            itemIconTintRes = ta.getColorStateList(R.styleable.StyleBottomLayout_itemIconTint);
-            itemColorStateList = ta.getColorStateList(R.styleable.StyleBottomLayout_itemTextColor);
-            if (itemIconTintRes == null) {
-                itemIconTintRes = ResourcesCompat.getColorStateList(getResources(), R.drawable.default_blue_tab_tint, null);
-            }
-            if (itemColorStateList == null) {
-                itemColorStateList = ResourcesCompat.getColorStateList(getResources(), R.drawable.default_blue_tab_tint, null);
+    private void drawWithRenderCache(Canvas canvas) {
+        if (renderCacheDirty || renderCache == null) {
+            rebuildRenderCache();
+        }
+        canvas.drawBitmap(renderCache, 0, 0, null);
+        int count = items.size;
+        for (int i = 0; i < count; i++) {
+            if (isDynamicItem(i) && isItemDirty(i)) {
+                drawItemContent(canvas, i);
             }
-            floatingEnable = ta.getBoolean(R.styleable.StyleBottomLayout_floatingEnable, false);
-            if (floatingEnable) {
-                floatingUp = (int) ta.getDimension(R.styleable.StyleBottomLayout_floatingUp, 0);
+        }
+        for (int i = 0; i < count; i++) {
+            if (isItemDirty(i)) {
+                drawItemBadge(canvas, i);
             }
-            int xmlRes = ta.getResourceId(R.styleable.StyleBottomLayout_menu, 0);
-            parseXml(xmlRes);
         }
-        format();
+        drawIndicator(canvas);
     }
 
     /**
-     * 处理数据
+     * 重建静态内容的位图缓存，位图尺寸不变时复用
      */
-    private void format() {
-        if (itemList.size() > 5) {
-            itemList = itemList.subList(0, 5);
-        }
-        if (getBackground() != null && getBackground() instanceof ColorDrawable) {
-            background = getBackground();
+    private void rebuildRenderCache() {
+        if (renderCache == null || renderCache.getWidth() != mWidth || renderCache.getHeight() != mHeight) {
+            releaseRenderCache();
+            renderCache = Bitmap.createBitmap(mWidth, mHeight, Bitmap.Config.ARGB_8888);
+            renderCacheCanvas = new Canvas(renderCache);
         } else {
-            background = new ColorDrawable(Color.WHITE);
+            renderCache.eraseColor(Color.TRANSPARENT);
         }
+        drawOutline(renderCacheCanvas);
+        int count = Math.min(items.size, iconLeft.length);
+        for (int i = 0; i < count; i++) {
+            if (!isDynamicItem(i)) {
+                drawItemContent(renderCacheCanvas, i);
+            }
+        }
+        renderCacheDirty = false;
     }
 
     /**
-     * 解析 menu 的 xml 的文件，得到相关的 导航栏菜单
+     * 选中状态变化时，只重画位图缓存中该Item所在的格子，不重建整个缓存；
+     * 上浮的Item的圆角和阴影超出自己的格子，只重画格子会在相邻的格子边缘留下旧的像素，改为下一帧重建整个缓存
      *
-     * @param xmlRes
+     * @param position Item 的位置
      */
-    private void parseXml(int xmlRes) {
-        try {
-            if (xmlRes == 0) {
-                return;
-            }
-            XmlResourceParser xmlParser = getResources().getXml(xmlRes);
-            int event = xmlParser.getEventType();   //先获取当前解析器光标在哪
-            while (event != XmlPullParser.END_DOCUMENT) {    //如果还没到文档的结束标志，那么就继续往下处理
-                switch (event) {
-                    case XmlPullParser.START_DOCUMENT:
-                        Log.e(TAG, "xml解析开始");
-                        break;
-                    case XmlPullParser.START_TAG:
-                        //一般都是获取标签的属性值，所以在这里数据你需要的数据
-                        Log.e(TAG, "当前标签是：" + xmlParser.getName());
-                        if (xmlParser.getName().equals("item")) {
-                            Item item = new Item();
-                            for (int i = 0; i < xmlParser.getAttributeCount(); i++) {
-                                //两种方法获取属性值
-                                Log.e(TAG, "第" + (i + 1) + "个属性：" + xmlParser.getAttributeName(i)
-                                        + ": " + xmlParser.getAttributeValue(i));
-                                if ("id".equalsIgnoreCase(xmlParser.getAttributeName(i))) {
-                                    item.id = xmlParser.getAttributeResourceValue(i, 0);
-                                } else if ("icon".equalsIgnoreCase(xmlParser.getAttributeName(i))) {
-                                    int drawableId = xmlParser.getAttributeResourceValue(i, 0);
-                                    Drawable drawable = ResourcesCompat.getDrawable(getResources(), drawableId, null);
-                                    item.drawable = drawable.getConstantState().newDrawable();
-                                    StateListDrawable stateListDrawable = new StateListDrawable();
-                                    if (drawable instanceof StateListDrawable) {
-                                        stateListDrawable = (StateListDrawable) drawable;
-                                        stateListDrawable.setState(new int[]{android.R.attr.state_checked});
-                                        stateListDrawable.mutate();
-                                    } else {
-                                        Drawable selectedDrawable = tintListDrawable(drawable, itemIconTintRes);
-                                        selectedDrawable.setState(new int[]{android.R.attr.state_checked});
-                                        stateListDrawable.addState(new int[]{android.R.attr.state_checked}, selectedDrawable.getCurrent());
-                                        stateListDrawable.addState(new int[]{android.R.attr.state_selected}, selectedDrawable.getCurrent());
-                                        stateListDrawable.addState(new int[]{android.R.attr.state_pressed}, selectedDrawable.getCurrent());
-                                        stateListDrawable.addState(new int[]{android.R.attr.state_focused}, selectedDrawable.getCurrent());
-                                        selectedDrawable.setState(new int[]{});
-                                        stateListDrawable.addState(new int[]{}, selectedDrawable.getCurrent());
-                                    }
-                                    item.icon = stateListDrawable;
-                                } else if ("title".equalsIgnoreCase(xmlParser.getAttributeName(i))) {
-                                    item.title = xmlParser.getAttributeValue(i);
-                                } else if ("floating".equalsIgnoreCase(xmlParser.getAttributeName(i))) {
-                                    item.floating = xmlParser.getAttributeBooleanValue(i, false);
-                                } else if ("checked".equalsIgnoreCase(xmlParser.getAttributeName(i))) {
-                                    item.checked = xmlParser.getAttributeBooleanValue(i, false);
-                                } else if ("checkable".equalsIgnoreCase(xmlParser.getAttributeName(i))) {
-                                    item.checkable = xmlParser.getAttributeBooleanValue(i, false);
-                                }
-                            }
-                            if (item.checkable && item.checked) {
-                                checkedPosition = itemList.size();
-                            }
-                            itemList.add(item);
-                        }
-                        break;
-                    case XmlPullParser.TEXT:
-                        Log.e(TAG, "Text:" + xmlParser.getText());
-                        break;
-                    case XmlPullParser.END_TAG:
-                        Log.e(TAG, "xml解析结束");
-                        break;
-                    default:
-                        break;
-                }
-                event = xmlParser.next();   //将当前解析器光标往下一步移
-            }
-        } catch (XmlPullParserException e) {
-            e.printStackTrace();
-        } catch (IOException e) {
-            e.printStackTrace();
+    private void updateRenderCache(int position) {
+        if (!renderCacheEnabled || renderCacheDirty || renderCache == null
+                || position < 0 || position >= iconLeft.length || position >= items.size) {
+            return;
+        }
+        if (isFloatingItem(position)) {
+            renderCacheDirty = true;
+            return;
+        }
+        int left = dirtyLeft[position];
+        int saveCount = renderCacheCanvas.save();
+        renderCacheCanvas.clipRect(left, 0, left + mItemWidth, mHeight);
+        renderCacheCanvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        drawOutline(renderCacheCanvas);
+        if (!isDynamicItem(position)) {
+            drawItemContent(renderCacheCanvas, position);
         }
+        renderCacheCanvas.restoreToCount(saveCount);
     }
 
-
     /**
-     * 当初始化布局以后，进行默认选中
+     * 选中的Item和正在动画中的Item每帧都会变化，不画到位图缓存中
      *
-     * @param changed
-     * @param left
-     * @param top
-     * @param right
-     * @param bottom
+     * @param position
+     * @return
      */
-    @Override
-    protected void onLayout(boolean changed, int left, int top, int right, int bottom) {
-        super.onLayout(changed, left, top, right, bottom);
-        setSelected(checkedPosition);
+    private boolean isDynamicItem(int position) {
+        return items.isChecked(position) || selectionAnimator.getProgress(position) > 0f
+                || selectionAnimator.isScrollBlending(position);
     }
 
     /**
-     * 尺寸测量
-     *
-     * @param widthMeasureSpec
-     * @param heightMeasureSpec
+     * 释放位图缓存
      */
+    private void releaseRenderCache() {
+        if (renderCache != null) {
+            renderCache.recycle();
+            renderCache = null;
+            renderCacheCanvas = null;
+        }
+        renderCacheDirty = true;
+    }
+
     @Override
-    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        mWidth = MeasureSpec.getSize(widthMeasureSpec);
-        mHeight = MeasureSpec.getSize(heightMeasureSpec);
-        mItemWidth = (mWidth - getPaddingLeft() - getPaddingRight()) / itemList.size();
-        topPadding = getPaddingTop();
-        bottomPadding = getPaddingBottom();
-        if (floatingEnable) {
-            mHeight += floatingUp;
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        finishSelectionAnimation();
+        releaseRenderCache();
+        releaseShadow();
+        if (iconAtlas != null) {
+            iconAtlas.release();
+        }
+        if (badgeRenderer instanceof DefaultBadgeRenderer) {
+            ((DefaultBadgeRenderer) badgeRenderer).clear();
+        }
+        if (velocityTracker != null) {
+            velocityTracker.recycle();
+            velocityTracker = null;
         }
-        mItemHeight = mHeight > mItemWidth ? mItemWidth : mHeight;
-        super.onMeasure(widthMeasureSpec, MeasureSpec.makeMeasureSpec(mHeight, MeasureSpec.getMode(heightMeasureSpec)));
     }
 
+    /**
+     * 根据滚动位置计算可见的Item范围，只需要两次除法，与Item数量无关
+     */
+    private void updateVisibleRange() {
+        int count = Math.min(items.size, dirtyLeft.length);
+        if (mItemWidth <= 0 || count == 0) {
+            firstVisible = 0;
+            lastVisible = -1;
+            return;
+        }
+        int left = getScrollX() - getPaddingLeft();
+        //未读消息数可能超出Item的右边，多画左边的一个Item
+        firstVisible = Math.max(0, left / mItemWidth - 1);
+        lastVisible = Math.min(count - 1, (left + mWidth) / mItemWidth);
+    }
 
     /**
-     * 进行绘制
+     * 判断Item的区域是否在本次需要重绘的裁剪区域内
+     *
+     * @param position Item 的位置
+     * @return
+     */
+    private boolean isItemDirty(int position) {
+        return position < dirtyLeft.length
+                && mClipBounds.intersects(dirtyLeft[position], dirtyTop[position], dirtyRight[position], dirtyBottom[position]);
+    }
+
+    /**
+     * 画出每一个Item导航菜单，位置数据来自 {@link #computeItemLayout()}
      *
      * @param canvas
+     * @param position
      */
-    @Override
-    protected void onDraw(Canvas canvas) {
-        super.onDraw(canvas);
-        if (!floatingEnable) {
-            floatingUp = 0;
-        }
-        //画背景
-        background.setBounds(0, floatingUp, mWidth, mHeight);
-        background.draw(canvas);
-        //画Floating
-        drawFloating(canvas);
-        //画出所有导航菜单
-        if (itemList.size() > 0) {
-            for (int i = 0; i < itemList.size(); i++) {
-                Item item = itemList.get(i);
-                drawItem(canvas, item, i);
-            }
+    private void drawItem(Canvas canvas, int position) {
+        if (position >= iconLeft.length) {
+            return;
         }
-
+        drawItemContent(canvas, position);
+        drawItemBadge(canvas, position);
     }
 
     /**
-     * 画出上浮图标的背景
+     * 画出Item的文字和图标
      *
      * @param canvas
+     * @param position
      */
-    private void drawFloating(Canvas canvas) {
-        if (itemList.size() > 0) {
-            for (int i = 0; i < itemList.size(); i++) {
-                Item item = itemList.get(i);
-                if (item.floating) {
-                    int startTop = 0;
-                    //图片文字内容宽度
-                    int width = mItemHeight - topPadding - bottomPadding;
-                    //图片文字内容高度
-                    int height = mItemHeight - topPadding - bottomPadding;
-                    startTop = topPadding;
-                    if (!TextUtils.isEmpty(item.title)) {
-                        int color = item.checked ? itemColorStateList.getColorForState(new int[]{android.R.attr.state_checked}, itemColorStateList.getDefaultColor()) : itemColorStateList.getDefaultColor();
-                        createTextPaint(item.titleSize == 0 ? DensityUtils.dpToPx(getResources(), 14) : item.titleSize, color);
-                        int textHeight = getTextHeight(item.title, mPaint);
-                        int textY = startTop + height - textHeight / 4;//上边距+图片文字内容高度
-                        int w = textY - textHeight / 2 - topPadding;
-//                        width = height = height - textHeight - textTop;
-                    }
-                    int x = getPaddingLeft() + i * mItemWidth + (mItemWidth - width) / 2 + width / 2;
-                    int y = mItemHeight / 2;
-                    int r = mItemHeight / 2;
-                    Paint paint = createPaint(Color.WHITE);
-                    if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                        paint.setColorFilter(background.getColorFilter());
-                    }
-                    paint.setStyle(Paint.Style.FILL);
-                    canvas.drawCircle(x, y, r, paint);
-                }
+    private void drawItemContent(Canvas canvas, int position) {
+        boolean checkable = items.isCheckable(position);
+        //选中比例，0 为未选中，1 为选中，动画中在两者之间
+        float fraction = checkable ? selectionAnimator.getFraction(position) : 1f;
+        //禁用的Item半透明显示
+        int alpha = items.isEnabled(position) ? 255 : DISABLED_ALPHA;
+        String title = textTitle[position];
+        if (!TextUtils.isEmpty(title)) {
+            int color = blendColor(normalTextColor, checkedTextColor, fraction);
+            if (alpha != 255) {
+                color = (color & 0x00ffffff) | (((color >>> 24) * alpha / 255) << 24);
             }
+            mPaint.setColor(color);
+            mPaint.setTextSize(textSize[position]);
+            canvas.drawText(title, textX[position], textY[position], mPaint);
         }
+        StateListDrawable icon = items.icons[position];
+        if (icon != null) {
+            if (!checkable) {
+                drawIcon(canvas, items.plainIcons[position], position, false, alpha);
+                return;
+            }
+            float scale = items.isChecked(position) ? selectionAnimator.getIconScale(position) : 1f;
+            int saveCount = -1;
+            if (scale != 1f) {
+                saveCount = canvas.save();
+                canvas.scale(scale, scale, (iconLeft[position] + iconRight[position]) / 2f,
+                        (iconTop[position] + iconBottom[position]) / 2f);
+            }
+            Drawable checkedIcon = items.checkedIcons[position];
+            Drawable normalIcon = items.normalIcons[position];
+            if (checkedIcon == normalIcon && !isIconAtlasReady()) {
+                //选中和未选中是同一个图标时无法淡入淡出，过半时切换状态；图集中两种状态分开保存，可以淡入淡出
+                boolean checked = fraction >= 0.5f;
+                icon.setState(checked ? STATE_CHECKED : STATE_NORMAL);
+                drawIcon(canvas, icon.getCurrent(), position, checked, alpha);
+            } else if (fraction <= 0f) {
+                drawIcon(canvas, normalIcon, position, false, alpha);
+            } else if (fraction >= 1f) {
+                drawIcon(canvas, checkedIcon, position, true, alpha);
+            } else {
+                drawIcon(canvas, normalIcon, position, false, (int) ((1f - fraction) * alpha));
+                drawIcon(canvas, checkedIcon, position, true, (int) (fraction * alpha));
+            }
+            if (saveCount >= 0) {
+                canvas.restoreToCount(saveCount);
+            }
+        }
+    }
+
+    /**
+     * 图标图集是否已经构建好，未构建好时直接绘制图标
+     *
+     * @return
+     */
+    private boolean isIconAtlasReady() {
+        return iconAtlas != null && iconAtlas.isReady();
     }
 
     /**
-     * 画出每一个Item导航菜单
+     * 在Item的图标区域画出图标，开启图标图集时画出图集中对应的区域
      *
      * @param canvas
-     * @param item
+     * @param drawable 图标
+     * @param position Item 的位置
+     * @param checked  是否为选中的图标
+     * @param alpha    透明度，画完后恢复为不透明
      */
-    private void drawItem(Canvas canvas, Item item, int position) {
-        if (item == null) {
+    private void drawIcon(Canvas canvas, Drawable drawable, int position, boolean checked, int alpha) {
+        if (drawable == null) {
+            return;
+        }
+        if (isIconAtlasReady()) {
+            iconAtlas.draw(canvas, position, checked, iconLeft[position], iconTop[position], alpha);
             return;
         }
-        //图片文字内容宽度
-        int width = mItemHeight - topPadding - bottomPadding;
-        //图片文字内容高度
-        int height = mItemHeight - topPadding - bottomPadding;
-        int startTop = 0;
-        if (!item.floating) {
-            startTop = topPadding + floatingUp;
-            width = width - floatingUp;
-            height = height - floatingUp;
+        drawable.setBounds(iconLeft[position], iconTop[position], iconRight[position], iconBottom[position]);
+        if (alpha != 255) {
+            drawable.setAlpha(alpha);
+            drawable.draw(canvas);
+            drawable.setAlpha(255);
         } else {
-            startTop = topPadding;
-        }
-        if (!TextUtils.isEmpty(item.title)) {
-            int color = item.checked ? itemColorStateList.getColorForState(new int[]{android.R.attr.state_checked}, itemColorStateList.getDefaultColor()) : itemColorStateList.getDefaultColor();
-            if (!item.checkable) {
-                color = itemColorStateList.getColorForState(new int[]{android.R.attr.state_checked}, itemColorStateList.getDefaultColor());
-            }
-            createTextPaint(item.titleSize == 0 ? DensityUtils.dpToPx(getResources(), 14) : item.titleSize, color);
-            int textHeight = getTextHeight(item.title, mPaint);
-            int textY = startTop + height - textHeight / 4;//上边距+图片文字内容高度
-            int w = textY - textHeight / 2 - topPadding;
-            width = height = height - textHeight - textTop;
-            canvas.drawText(item.title, position * mItemWidth + getPaddingLeft() + mItemWidth / 2, textY, mPaint);
-        }
-        if (item.icon != null) {
-            Rect to = new Rect();
-            to.left = getPaddingLeft() + position * mItemWidth + (mItemWidth - width) / 2;
-            to.top = startTop;
-            to.right = to.left + width;
-            to.bottom = topPadding + height;
-            if (!item.floating) {
-                to.bottom = (int) (topPadding + height + floatingUp);
-            }
-            Drawable drawable;
-            if (item.checkable) {
-                if (item.checked) {
-                    item.icon.setState(new int[]{android.R.attr.state_checked});
-                    drawable = item.icon.getCurrent();
-                } else {
-                    item.icon.setState(new int[]{});
-                    drawable = item.icon.getCurrent();
-                }
-            } else {
-                drawable = item.drawable;
-            }
-            drawable.setBounds(to);
             drawable.draw(canvas);
         }
-        if (item.msgCount != 0) {
-            int x = 0;
-            int y = 0;
-            int r = 0;
-            if (item.msgCount > 0) {
-                createTextPaint(item.titleSize == 0 ? DensityUtils.dpToPx(getResources(), 9) : item.titleSize, Color.WHITE);
-                r = getTextWidth("99+", mPaint) / 2 + 1;
-                String count = "";
-                if (item.msgCount > 99) {
-                    count = "99+";
-                    createTextPaint(item.titleSize == 0 ? DensityUtils.dpToPx(getResources(), 8) : item.titleSize, Color.WHITE);
-                } else {
-                    count = String.valueOf(item.msgCount);
-                }
-                x = getPaddingLeft() + position * mItemWidth + (mItemWidth - width) / 2 + width - r / 4;
-                y = startTop + r - r / 3;
-                Paint paint = createPaint(Color.RED);
-                canvas.drawCircle(x, y, r, paint);
-                canvas.drawText(count, x, y + r / 2, mPaint);
-                paint.setStyle(Paint.Style.STROKE);
-                paint.setColor(Color.WHITE);
-                paint.setStrokeWidth(DensityUtils.dpToPx(getResources(), 1));
-                canvas.drawCircle(x, y, r, paint);
-            } else {
-                r = 9;
-                x = getPaddingLeft() + position * mItemWidth + (mItemWidth - width) / 2 + width - r;
-                y = startTop + r;
-                Paint paint = createPaint(Color.RED);
-                canvas.drawCircle(x, y, r, paint);
-                paint.setStyle(Paint.Style.STROKE);
-                paint.setColor(Color.WHITE);
-                paint.setStrokeWidth(DensityUtils.dpToPx(getResources(), 1));
-                canvas.drawCircle(x, y, r, paint);
-            }
+    }
+
+    /**
+     * 按比例混合两个颜色，每个通道线性插值
+     *
+     * @param from     比例为 0 时的颜色
+     * @param to       比例为 1 时的颜色
+     * @param fraction 比例
+     * @return
+     */
+    private static int blendColor(int from, int to, float fraction) {
+        if (fraction <= 0f) {
+            return from;
+        }
+        if (fraction >= 1f) {
+            return to;
+        }
+        int a = (int) ((from >>> 24) + ((to >>> 24) - (from >>> 24)) * fraction);
+        int r = (int) (((from >> 16) & 0xff) + (((to >> 16) & 0xff) - ((from >> 16) & 0xff)) * fraction);
+        int g = (int) (((from >> 8) & 0xff) + (((to >> 8) & 0xff) - ((from >> 8) & 0xff)) * fraction);
+        int b = (int) ((from & 0xff) + ((to & 0xff) - (from & 0xff)) * fraction);
+        return (a << 24) | (r << 16) | (g << 8) | b;
+    }
 
+    /**
+     * 画出Item的未读消息数
+     *
+     * @param canvas
+     * @param position
+     */
+    private void drawItemBadge(Canvas canvas, int position) {
+        int msgCount = items.msgCounts[position];
+        if (msgCount > 0) {
+            int textSize = msgCount > 99 ? msgOverflowTextSize[position] : msgTextSize[position];
+            badgeRenderer.drawBadge(canvas, msgCount, msgX[position], msgY[position], msgRadius[position], textSize);
+        } else if (msgCount < 0) {
+            badgeRenderer.drawBadge(canvas, msgCount, dotX[position], dotY[position], DOT_RADIUS, 0);
         }
     }
 
@@ -598,9 +2294,8 @@ public class BottomNavigationBar extends View {
      * @return
      */
     private int getTextWidth(String text, Paint paint) {
-        Rect rect = new Rect(); // 文字所在区域的矩形
-        paint.getTextBounds(text, 0, text.length(), rect);
-        return rect.width();
+        paint.getTextBounds(text, 0, text.length(), mTextBounds);
+        return mTextBounds.width();
     }
 
     /**
@@ -611,9 +2306,8 @@ public class BottomNavigationBar extends View {
      * @return
      */
     private int getTextHeight(String text, Paint paint) {
-        Rect rect = new Rect();
-        paint.getTextBounds(text, 0, text.length(), rect);
-        return rect.height();
+        paint.getTextBounds(text, 0, text.length(), mTextBounds);
+        return mTextBounds.height();
     }
 
 
@@ -625,10 +2319,7 @@ public class BottomNavigationBar extends View {
      * @return
      */
     public Drawable tintListDrawable(Drawable drawable, ColorStateList colors) {
-        Drawable wrappedDrawable = DrawableCompat.wrap(drawable);
-        DrawableCompat.setTintMode(wrappedDrawable, PorterDuff.Mode.MULTIPLY);
-        DrawableCompat.setTintList(wrappedDrawable, colors);
-        return wrappedDrawable;
+        return MenuParser.tintListDrawable(drawable, colors);
     }
 
     /**
@@ -639,79 +2330,241 @@ public class BottomNavigationBar extends View {
      */
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        double x = (double) event.getRawX();
-        double y = (double) event.getRawY();
-        //获取控件在屏幕的位置
-        int[] location = new int[2];
-        getLocationOnScreen(location);
-        int locationY = location[1];
-        y = y - locationY;
-        int action = event.getAction();
-        Log.e(TAG, "action = " + action);
-        switch (action) {
+        if (maxScrollX > 0 && handleScrollTouch(event)) {
+            return true;
+        }
+        switch (event.getAction()) {
             case MotionEvent.ACTION_DOWN:
                 return true;
-//                break;
-            case MotionEvent.ACTION_MOVE:
-                break;
             case MotionEvent.ACTION_UP:
-                for (int i = 0; i < itemList.size(); i++) {
-                    Item item = itemList.get(i);
-                    int startTop = 0;
-                    if (!item.floating) {
-                        startTop = getPaddingTop() + floatingUp;
-                    }
-                    if (x > getPaddingLeft() + mItemWidth * i && x < getPaddingLeft() + mItemWidth * (i + 1)) {
-                        //图片文字内容宽度
-                        int width = mItemHeight - topPadding - bottomPadding;
-                        //图片文字内容高度
-                        int height = mItemHeight - topPadding - bottomPadding;
-                        if (!TextUtils.isEmpty(item.title)) {
-                            int color = item.checked ? itemColorStateList.getColorForState(new int[]{android.R.attr.state_checked}, itemColorStateList.getDefaultColor()) : itemColorStateList.getDefaultColor();
-                            createTextPaint(item.titleSize == 0 ? DensityUtils.dpToPx(getResources(), 14) : item.titleSize, color);
-                            int textHeight = getTextHeight(item.title, mPaint);
-                            int textY = startTop + height - textHeight / 4;//上边距+图片文字内容高度
-                            int w = textY - textHeight / 2 - topPadding;
-//                        width = height = height - textHeight - textTop;
-                        }
-                        int centerX = getPaddingLeft() + i * mItemWidth + (mItemWidth - width) / 2 + width / 2;
-                        int centerY = mItemHeight / 2;
-                        int r = mItemHeight / 2;
-                        if (y >= floatingUp || (item.floating && isInCircle(centerX, centerY, r, (int) x, (int) y))) {
-                            setSelected(i);
+                TraceUtils.beginSection(TraceUtils.SECTION_TOUCH);
+                try {
+                    int position = hitTest((int) event.getX() + getScrollX(), (int) event.getY());
+                    if (position >= 0) {
+                        select(position, SOURCE_USER);
+                        if (viewPager != null && items.isCheckable(position)) {
+                            viewPager.setCurrentItem(position);
                         }
                     }
+                } finally {
+                    TraceUtils.endSection();
                 }
-                postInvalidate();
+                if (renderStats != null) {
+                    renderStats.recordTouch(SystemClock.uptimeMillis() - event.getEventTime());
+                }
+                break;
+            default:
                 break;
         }
         return super.onTouchEvent(event);
     }
 
+    /**
+     * 处理滚动模式下的拖动和惯性滚动
+     *
+     * @param event
+     * @return 事件是否被滚动处理，没有拖动的抬起返回 false，按点击处理
+     */
+    private boolean handleScrollTouch(MotionEvent event) {
+        if (velocityTracker == null) {
+            velocityTracker = VelocityTracker.obtain();
+        }
+        velocityTracker.addMovement(event);
+        switch (event.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                touchDownX = lastTouchX = event.getX();
+                dragging = false;
+                downStoppedFling = !scroller.isFinished();
+                scroller.forceFinished(true);
+                return false;
+            case MotionEvent.ACTION_MOVE:
+                float x = event.getX();
+                if (!dragging && Math.abs(x - touchDownX) > touchSlop) {
+                    dragging = true;
+                    lastTouchX = x;
+                    if (getParent() != null) {
+                        getParent().requestDisallowInterceptTouchEvent(true);
+                    }
+                }
+                if (dragging) {
+                    int dx = (int) (lastTouchX - x);
+                    if (dx != 0) {
+                        scrollTo(clampScrollX(getScrollX() + dx), 0);
+                        lastTouchX -= dx;
+                    }
+                }
+                return true;
+            case MotionEvent.ACTION_UP:
+                boolean wasDragging = dragging;
+                if (dragging) {
+                    velocityTracker.computeCurrentVelocity(1000, maxFlingVelocity);
+                    int velocityX = (int) velocityTracker.getXVelocity();
+                    if (Math.abs(velocityX) > minFlingVelocity) {
+                        scroller.fling(getScrollX(), 0, -velocityX, 0, 0, maxScrollX, 0, 0);
+                        ViewCompat.postInvalidateOnAnimation(this);
+                    }
+                }
+                dragging = false;
+                velocityTracker.clear();
+                return wasDragging || downStoppedFling;
+            case MotionEvent.ACTION_CANCEL:
+                dragging = false;
+                velocityTracker.clear();
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 惯性滚动中每帧更新滚动位置
+     */
+    @Override
+    public void computeScroll() {
+        if (scroller != null && scroller.computeScrollOffset()) {
+            scrollTo(clampScrollX(scroller.getCurrX()), 0);
+            ViewCompat.postInvalidateOnAnimation(this);
+        }
+    }
+
+    /**
+     * 滚动到Item完整可见的位置
+     *
+     * @param position Item 的位置
+     * @param smooth   是否平滑滚动
+     */
+    private void scrollToItem(int position, boolean smooth) {
+        if (maxScrollX <= 0 || mItemWidth <= 0) {
+            return;
+        }
+        int left = getPaddingLeft() + position * mItemWidth;
+        int right = left + mItemWidth;
+        int scrollX = getScrollX();
+        int target = scrollX;
+        if (left < scrollX) {
+            target = left;
+        } else if (right > scrollX + mWidth) {
+            target = right - mWidth;
+        }
+        target = clampScrollX(target);
+        if (target == scrollX) {
+            return;
+        }
+        if (smooth) {
+            scroller.startScroll(scrollX, 0, target - scrollX, 0);
+            ViewCompat.postInvalidateOnAnimation(this);
+        } else {
+            scrollTo(target, 0);
+        }
+    }
+
+    private int clampScrollX(int scrollX) {
+        return Math.max(0, Math.min(maxScrollX, scrollX));
+    }
+
+    /**
+     * 开启滚动模式时创建惯性滚动
+     */
+    private void ensureScroller() {
+        if (scroller == null) {
+            scroller = new OverScroller(getContext());
+        }
+    }
+
+    /**
+     * 根据布局时计算好的数据，找到触摸位置所在的Item，坐标为内容坐标（已加上滚动距离）
+     *
+     * @param x 触摸位置的 X 坐标
+     * @param y 触摸位置的 Y 坐标
+     * @return Item 的位置，不在任何Item内时返回 -1
+     */
+    private int hitTest(int x, int y) {
+        int offset = x - getPaddingLeft();
+        if (mItemWidth <= 0 || offset < 0) {
+            return -1;
+        }
+        int position = offset / mItemWidth;
+        if (position >= items.size || position >= floatingX.length) {
+            return -1;
+        }
+        //上浮区域以下直接命中，上浮区域内只有在上浮背景圆内才命中
+        if (!items.isEnabled(position)) {
+            return -1;
+        }
+        if (y >= getTopInset()) {
+            return position;
+        }
+        if (isFloatingItem(position) && isInCircle(floatingX[position], floatingY, floatingRadiusSquare, x, y)) {
+            return position;
+        }
+        return -1;
+    }
+
 
     /**
      * 判断触摸位置是否在圆形内部
      *
      * @param vCenterX 圆形的 X 坐标
      * @param vCenterY 圆形的 Y 坐标
-     * @param r        圆形的半径
+     * @param rSquare  圆形半径的平方
      * @param touchX   触摸位置的 X 坐标
      * @param touchY   触摸位置的 Y 坐标
      * @return
      */
-    private boolean isInCircle(int vCenterX, int vCenterY, int r, int touchX, int touchY) {
-        //点击位置x坐标与圆心的x坐标的距离
-        int distanceX = Math.abs(vCenterX - touchX);
-        //点击位置y坐标与圆心的y坐标的距离
-        int distanceY = Math.abs(vCenterY - touchY);
-        //点击位置与圆心的直线距离
-        int distanceZ = (int) Math.sqrt(Math.pow(distanceX, 2) + Math.pow(distanceY, 2));
-
+    private boolean isInCircle(int vCenterX, int vCenterY, int rSquare, int touchX, int touchY) {
+        //点击位置与圆心的距离的平方
+        int distanceX = vCenterX - touchX;
+        int distanceY = vCenterY - touchY;
         //如果点击位置与圆心的距离大于圆的半径，证明点击位置没有在圆内
-        if (distanceZ > r) {
-            return false;
+        return distanceX * distanceX + distanceY * distanceY <= rSquare;
+    }
+
+    /**
+     * 配置变化时保存的状态
+     */
+    static class SavedState extends BaseSavedState {
+        private int checkedPosition;
+        private boolean floatingEnable;
+        private int floatingUp;
+        //按位置排列的未读消息数
+        private int[] msgCounts;
+        //按位置排列的 ItemModel.FLAG_ENABLED
+        private int[] flags;
+
+        SavedState(Parcelable superState) {
+            super(superState);
         }
-        return true;
+
+        private SavedState(Parcel source) {
+            super(source);
+            checkedPosition = source.readInt();
+            floatingEnable = source.readInt() != 0;
+            floatingUp = source.readInt();
+            msgCounts = source.createIntArray();
+            flags = source.createIntArray();
+        }
+
+        @Override
+        public void writeToParcel(Parcel out, int flags) {
+            super.writeToParcel(out, flags);
+            out.writeInt(checkedPosition);
+            out.writeInt(floatingEnable ? 1 : 0);
+            out.writeInt(floatingUp);
+            out.writeIntArray(msgCounts);
+            out.writeIntArray(this.flags);
+        }
+
+        public static final Parcelable.Creator<SavedState> CREATOR = new Parcelable.Creator<SavedState>() {
+            @Override
+            public SavedState createFromParcel(Parcel source) {
+                return new SavedState(source);
+            }
+
+            @Override
+            public SavedState[] newArray(int size) {
+                return new SavedState[size];
+            }
+        };
     }
 
     /**
@@ -722,41 +2575,51 @@ public class BottomNavigationBar extends View {
     }
 
     /**
-     * 导航菜单Item 的实体
+     * 重复选中监听事件的接口
      */
-    public class Item {
-        private int id;
-        private StateListDrawable icon;
-        private Drawable drawable;
-        private String title;
-        private int titleSize;
-        private boolean floating = false;
-        private boolean checked = false;
-        private boolean checkable = true;
-        private int msgCount = 0;
+    public interface OnItemReselectedListener {
+        void onItemReselected(Item item, int position);
+    }
+
+    /**
+     * 导航菜单Item 的只读视图，数据保存在 {@link ItemModel} 的数组中，每个位置只创建一次，
+     * 回调中可以直接保存使用，重新设置菜单后不再更新
+     */
+    public static final class Item {
+        private final ItemModel model;
+        private final int position;
+
+        Item(ItemModel model, int position) {
+            this.model = model;
+            this.position = position;
+        }
 
         public int getId() {
-            return id;
+            return model.ids[position];
         }
 
         public String getTitle() {
-            return title;
+            return model.titles[position];
         }
 
         public boolean isFloating() {
-            return floating;
+            return model.isFloating(position);
         }
 
         public boolean isChecked() {
-            return checked;
+            return model.isChecked(position);
         }
 
         public boolean isCheckable() {
-            return checkable;
+            return model.isCheckable(position);
+        }
+
+        public boolean isEnabled() {
+            return model.isEnabled(position);
         }
 
         public int getMsgCount() {
-            return msgCount;
+            return model.msgCounts[position];
         }
     }
 }
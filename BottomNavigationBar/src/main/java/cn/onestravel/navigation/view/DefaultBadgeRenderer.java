@@ -0,0 +1,160 @@
+package cn.onestravel.navigation.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import java.util.Arrays;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name DefaultBadgeRenderer
+ * @description 默认的未读消息样式：实心圆、白色数字和白色描边。每种数字、半径和文字大小第一次绘制时
+ * 预先画成一张小位图，保存在最近使用的缓存中，之后每次只需要一次 drawBitmap。
+ * 缓存的数量不少于菜单的Item数量（见 {@link #ensureCapacity(int)}），每帧最多用到每个Item各一张，
+ * 稳定状态下绘制时不会淘汰和重新创建位图
+ * @createTime 2026/10/18 22:10
+ */
+public final class DefaultBadgeRenderer implements BadgeRenderer {
+    //最少缓存的位图数量：小红点、99+ 以及常用的十几个数字
+    private static final int MIN_CACHE_SIZE = 16;
+    //未读消息数超过99时显示的文字
+    private static final String OVERFLOW_TEXT = "99+";
+
+    private final Paint fillPaint;
+    private final Paint strokePaint;
+    private final Paint textPaint;
+    private final int strokeWidth;
+    //最近使用的缓存：键、位图和最后使用的序号，数量很少，直接遍历查找
+    private long[] keys = new long[MIN_CACHE_SIZE];
+    private Bitmap[] sprites = new Bitmap[MIN_CACHE_SIZE];
+    private long[] lastUse = new long[MIN_CACHE_SIZE];
+    private long useCounter;
+
+    /**
+     * @param badgeColor  圆的颜色
+     * @param textColor   数字的颜色
+     * @param strokeColor 描边的颜色
+     * @param strokeWidth 描边的宽度，像素
+     */
+    public DefaultBadgeRenderer(int badgeColor, int textColor, int strokeColor, int strokeWidth) {
+        this.strokeWidth = strokeWidth;
+        fillPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        fillPaint.setColor(badgeColor);
+        strokePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        strokePaint.setColor(strokeColor);
+        strokePaint.setStyle(Paint.Style.STROKE);
+        strokePaint.setStrokeWidth(strokeWidth);
+        textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        textPaint.setColor(textColor);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        textPaint.setStyle(Paint.Style.FILL_AND_STROKE);
+    }
+
+    @Override
+    public void drawBadge(Canvas canvas, int count, int centerX, int centerY, int radius, int textSize) {
+        if (count == 0 || radius <= 0) {
+            return;
+        }
+        //数字超过99时都显示为 99+，共用一张位图
+        int text = count < 0 ? -1 : Math.min(count, 100);
+        long key = ((long) (text + 1) << 40) | ((long) radius << 20) | (textSize & 0xfffff);
+        Bitmap sprite = obtain(key, text, radius, textSize);
+        int half = sprite.getWidth() / 2;
+        canvas.drawBitmap(sprite, centerX - half, centerY - half, null);
+    }
+
+    /**
+     * 从缓存中取出位图，没有时画出新的位图并替换最久没有使用的一张
+     *
+     * @param key      缓存的键
+     * @param text     数字，-1 为小红点，100 为 99+
+     * @param radius   半径
+     * @param textSize 文字大小
+     * @return
+     */
+    private Bitmap obtain(long key, int text, int radius, int textSize) {
+        useCounter++;
+        int oldest = 0;
+        for (int i = 0; i < sprites.length; i++) {
+            if (sprites[i] != null && keys[i] == key) {
+                lastUse[i] = useCounter;
+                return sprites[i];
+            }
+            if (sprites[i] == null) {
+                oldest = i;
+                lastUse[i] = Long.MIN_VALUE;
+            } else if (lastUse[i] < lastUse[oldest]) {
+                oldest = i;
+            }
+        }
+        if (sprites[oldest] != null) {
+            sprites[oldest].recycle();
+        }
+        sprites[oldest] = render(text, radius, textSize);
+        keys[oldest] = key;
+        lastUse[oldest] = useCounter;
+        return sprites[oldest];
+    }
+
+    /**
+     * 画出一个未读消息的位图，圆心在位图中心，四周留出描边的宽度
+     *
+     * @param text     数字，-1 为小红点，100 为 99+
+     * @param radius   半径
+     * @param textSize 文字大小
+     * @return
+     */
+    private Bitmap render(int text, int radius, int textSize) {
+        int half = radius + strokeWidth + 1;
+        Bitmap sprite = Bitmap.createBitmap(half * 2, half * 2, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(sprite);
+        canvas.drawCircle(half, half, radius, fillPaint);
+        if (text > 0) {
+            textPaint.setTextSize(textSize);
+            canvas.drawText(getText(text), half, half + radius / 2, textPaint);
+        }
+        canvas.drawCircle(half, half, radius, strokePaint);
+        return sprite;
+    }
+
+    /**
+     * 保证缓存能放下每个Item各一张位图，菜单变化时调用，只增大不减小
+     *
+     * @param itemCount 菜单的Item数量
+     */
+    void ensureCapacity(int itemCount) {
+        if (itemCount <= sprites.length) {
+            return;
+        }
+        keys = Arrays.copyOf(keys, itemCount);
+        sprites = Arrays.copyOf(sprites, itemCount);
+        lastUse = Arrays.copyOf(lastUse, itemCount);
+    }
+
+    /**
+     * 未读消息显示的文字：小红点没有文字，超过99时显示 99+
+     *
+     * @param count 未读消息数
+     * @return
+     */
+    static String getText(int count) {
+        if (count <= 0) {
+            return "";
+        }
+        return count > 99 ? OVERFLOW_TEXT : String.valueOf(count);
+    }
+
+    /**
+     * 释放所有缓存的位图
+     */
+    public void clear() {
+        for (int i = 0; i < sprites.length; i++) {
+            if (sprites[i] != null) {
+                sprites[i].recycle();
+                sprites[i] = null;
+            }
+        }
+    }
+}
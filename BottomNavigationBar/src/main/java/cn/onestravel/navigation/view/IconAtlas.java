@@ -0,0 +1,174 @@
+package cn.onestravel.navigation.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.StateListDrawable;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name IconAtlas
+ * @description 图标图集，测量后把每个Item的未选中和选中图标按图标区域的实际像素大小画到同一张位图中，
+ * 第一行为未选中图标，第二行为选中图标，绘制时只需要 drawBitmap，不再每帧缩放或栅格化 VectorDrawable。
+ * 只在尺寸、屏幕密度或图标颜色变化时重建
+ * @createTime 2026/10/18 21:30
+ */
+final class IconAtlas {
+    //图标之间的间隔，避免绘制时采样到相邻的图标
+    private static final int SPACING = 1;
+    //选中状态
+    private static final int[] STATE_CHECKED = new int[]{android.R.attr.state_checked};
+    //未选中状态
+    private static final int[] STATE_NORMAL = new int[]{};
+
+    private Bitmap bitmap;
+    private Canvas canvas;
+    //每个Item的图标在位图中的左边和尺寸，两行使用相同的列
+    private int[] cellLeft = new int[0];
+    private int[] cellWidth = new int[0];
+    private int[] cellHeight = new int[0];
+    //第二行的顶部
+    private int rowHeight;
+    //构建时的屏幕密度
+    private int density;
+    //是否需要重建
+    private boolean dirty = true;
+    //绘制时复用，不分配对象
+    private final Rect src = new Rect();
+    private final Rect dst = new Rect();
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+    /**
+     * 标记需要重建，下一次绘制前重新栅格化
+     */
+    void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * 是否可以直接绘制
+     *
+     * @return
+     */
+    boolean isReady() {
+        return !dirty && bitmap != null;
+    }
+
+    /**
+     * 需要时重建图集
+     *
+     * @param items   导航菜单数据
+     * @param count   需要栅格化的Item数量
+     * @param left    每个Item图标区域的左边
+     * @param top     每个Item图标区域的顶部
+     * @param right   每个Item图标区域的右边
+     * @param bottom  每个Item图标区域的底部
+     * @param density 当前的屏幕密度
+     */
+    void ensure(ItemModel items, int count, int[] left, int[] top, int[] right, int[] bottom, int density) {
+        if (!dirty && this.density == density) {
+            return;
+        }
+        this.density = density;
+        dirty = false;
+        if (cellLeft.length != count) {
+            cellLeft = new int[count];
+            cellWidth = new int[count];
+            cellHeight = new int[count];
+        }
+        int width = 0;
+        int height = 0;
+        for (int i = 0; i < count; i++) {
+            cellLeft[i] = width;
+            cellWidth[i] = Math.max(0, right[i] - left[i]);
+            cellHeight[i] = Math.max(0, bottom[i] - top[i]);
+            width += cellWidth[i] + SPACING;
+            height = Math.max(height, cellHeight[i]);
+        }
+        if (width == 0 || height == 0) {
+            release();
+            dirty = false;
+            return;
+        }
+        rowHeight = height + SPACING;
+        if (bitmap == null || bitmap.getWidth() != width || bitmap.getHeight() != rowHeight * 2) {
+            release();
+            bitmap = Bitmap.createBitmap(width, rowHeight * 2, Bitmap.Config.ARGB_8888);
+            canvas = new Canvas(bitmap);
+        } else {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        }
+        for (int i = 0; i < count; i++) {
+            if (items.icons[i] == null) {
+                continue;
+            }
+            if (!items.isCheckable(i)) {
+                rasterize(items.plainIcons[i], i, 0);
+                rasterize(items.plainIcons[i], i, rowHeight);
+            } else if (items.checkedIcons[i] == items.normalIcons[i]) {
+                //选中和未选中是同一个图标，切换状态后分别画出
+                StateListDrawable icon = items.icons[i];
+                icon.setState(STATE_NORMAL);
+                rasterize(icon.getCurrent(), i, 0);
+                icon.setState(STATE_CHECKED);
+                rasterize(icon.getCurrent(), i, rowHeight);
+                icon.setState(STATE_NORMAL);
+            } else {
+                rasterize(items.normalIcons[i], i, 0);
+                rasterize(items.checkedIcons[i], i, rowHeight);
+            }
+        }
+    }
+
+    /**
+     * 把图标画到图集中
+     *
+     * @param drawable 图标
+     * @param position Item 的位置
+     * @param top      所在行的顶部
+     */
+    private void rasterize(Drawable drawable, int position, int top) {
+        if (drawable == null) {
+            return;
+        }
+        drawable.setBounds(cellLeft[position], top, cellLeft[position] + cellWidth[position], top + cellHeight[position]);
+        drawable.draw(canvas);
+    }
+
+    /**
+     * 从图集中画出图标
+     *
+     * @param target   目标画布
+     * @param position Item 的位置
+     * @param checked  画选中的图标还是未选中的图标
+     * @param left     图标区域的左边
+     * @param top      图标区域的顶部
+     * @param alpha    透明度
+     */
+    void draw(Canvas target, int position, boolean checked, int left, int top, int alpha) {
+        if (position >= cellLeft.length) {
+            return;
+        }
+        int srcTop = checked ? rowHeight : 0;
+        src.set(cellLeft[position], srcTop, cellLeft[position] + cellWidth[position], srcTop + cellHeight[position]);
+        dst.set(left, top, left + cellWidth[position], top + cellHeight[position]);
+        paint.setAlpha(alpha);
+        target.drawBitmap(bitmap, src, dst, paint);
+    }
+
+    /**
+     * 释放位图，下一次绘制前重建
+     */
+    void release() {
+        if (bitmap != null) {
+            bitmap.recycle();
+            bitmap = null;
+            canvas = null;
+        }
+        dirty = true;
+    }
+}
@@ -0,0 +1,193 @@
+package cn.onestravel.navigation.view;
+
+import android.content.res.Resources;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.StateListDrawable;
+import android.util.SparseIntArray;
+
+import cn.onestravel.navigation.menu.ParsedMenu;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name ItemModel
+ * @description 导航菜单的数据，按字段保存为并列的数组，绘制、测量和点击时按位置顺序读取，
+ * 不为每个Item创建对象，也不持有 View
+ * @createTime 2026/10/18 20:40
+ */
+final class ItemModel {
+    //上浮
+    static final int FLAG_FLOATING = 1;
+    //选中
+    static final int FLAG_CHECKED = 1 << 1;
+    //可以选中
+    static final int FLAG_CHECKABLE = 1 << 2;
+    //可以点击，禁用的Item半透明显示，不响应点击
+    static final int FLAG_ENABLED = 1 << 3;
+    //没有菜单时使用
+    static final ItemModel EMPTY = new ItemModel(new int[0]);
+    //选中状态
+    private static final int[] STATE_CHECKED = new int[]{android.R.attr.state_checked};
+    //未选中状态
+    private static final int[] STATE_NORMAL = new int[]{};
+
+    //菜单中的Item总数
+    final int capacity;
+    //显示的Item数量，非滚动模式下最多显示5个，其余的保留在数组中
+    int size;
+    final int[] ids;
+    final String[] titles;
+    //文字大小，0 时使用默认大小
+    final int[] titleSizes;
+    final int[] msgCounts;
+    //每个Item的状态位：FLAG_FLOATING（第0位）、FLAG_CHECKED（第1位）、FLAG_CHECKABLE（第2位）、FLAG_ENABLED（第3位）
+    final int[] flags;
+    //菜单id到位置的索引，在构造方法中建立，之后不再修改；
+    //通过 BottomNavigationBar 中的 volatile 字段发布后才可以在其他线程读取
+    final SparseIntArray idIndex;
+    //图标表：状态图标，以及从中取出的选中和未选中图标
+    final StateListDrawable[] icons;
+    final Drawable[] checkedIcons;
+    final Drawable[] normalIcons;
+    //不可选中的Item使用的原始图标
+    final Drawable[] plainIcons;
+    //监听回调中使用的只读Item，使用时才创建，每个位置只创建一次
+    private BottomNavigationBar.Item[] views;
+
+    ItemModel(int[] ids) {
+        this.capacity = ids.length;
+        this.size = capacity;
+        this.ids = ids;
+        idIndex = new SparseIntArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            //id 重复时保留第一个
+            if (idIndex.indexOfKey(ids[i]) < 0) {
+                idIndex.put(ids[i], i);
+            }
+        }
+        titles = new String[capacity];
+        titleSizes = new int[capacity];
+        msgCounts = new int[capacity];
+        flags = new int[capacity];
+        icons = new StateListDrawable[capacity];
+        checkedIcons = new Drawable[capacity];
+        normalIcons = new Drawable[capacity];
+        plainIcons = new Drawable[capacity];
+    }
+
+    /**
+     * 根据解析后的菜单创建，所有Item都未选中，选中状态在第一次布局时由初始选中设置
+     *
+     * @param menu      解析后的菜单
+     * @param resources 资源
+     * @return
+     */
+    static ItemModel from(ParsedMenu menu, Resources resources) {
+        int[] ids = new int[menu.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = menu.getEntries().get(i).getId();
+        }
+        ItemModel model = new ItemModel(ids);
+        for (int i = 0; i < model.capacity; i++) {
+            ParsedMenu.Entry entry = menu.getEntries().get(i);
+            model.titles[i] = entry.getTitle(resources);
+            int flag = FLAG_ENABLED;
+            if (entry.isFloating()) {
+                flag |= FLAG_FLOATING;
+            }
+            if (entry.isCheckable()) {
+                flag |= FLAG_CHECKABLE;
+            }
+            model.flags[i] = flag;
+            model.setIcons(i, entry.newIcon(resources), entry.newDrawable(resources));
+        }
+        return model;
+    }
+
+    /**
+     * 设置图标，并取出选中和未选中状态的图标，之后直接绘制这两个图标，不再切换状态
+     *
+     * @param position Item 的位置
+     * @param icon     状态图标
+     * @param plain    原始图标
+     */
+    void setIcons(int position, StateListDrawable icon, Drawable plain) {
+        icons[position] = icon;
+        plainIcons[position] = plain;
+        if (icon == null) {
+            checkedIcons[position] = normalIcons[position] = null;
+            return;
+        }
+        //绘制时会修改透明度，不能影响共享同一个 ConstantState 的其他图标
+        icon.mutate();
+        icon.setState(STATE_CHECKED);
+        Drawable checked = icon.getCurrent();
+        icon.setState(STATE_NORMAL);
+        Drawable normal = icon.getCurrent();
+        if (checked != normal) {
+            //切换状态时当前图标也会收到新的状态，这里恢复各自的状态
+            checked.setState(STATE_CHECKED);
+            normal.setState(STATE_NORMAL);
+        }
+        checkedIcons[position] = checked;
+        normalIcons[position] = normal;
+    }
+
+    boolean isFloating(int position) {
+        return (flags[position] & FLAG_FLOATING) != 0;
+    }
+
+    boolean isChecked(int position) {
+        return (flags[position] & FLAG_CHECKED) != 0;
+    }
+
+    boolean isCheckable(int position) {
+        return (flags[position] & FLAG_CHECKABLE) != 0;
+    }
+
+    boolean isEnabled(int position) {
+        return (flags[position] & FLAG_ENABLED) != 0;
+    }
+
+    /**
+     * 根据菜单id查找位置
+     *
+     * @param id 菜单id
+     * @return 位置，菜单中没有这个id时返回 -1
+     */
+    int indexOf(int id) {
+        return idIndex.get(id, -1);
+    }
+
+    void setEnabled(int position, boolean enabled) {
+        if (enabled) {
+            flags[position] |= FLAG_ENABLED;
+        } else {
+            flags[position] &= ~FLAG_ENABLED;
+        }
+    }
+
+    void setChecked(int position, boolean checked) {
+        if (checked) {
+            flags[position] |= FLAG_CHECKED;
+        } else {
+            flags[position] &= ~FLAG_CHECKED;
+        }
+    }
+
+    /**
+     * 获取监听回调中使用的只读Item
+     *
+     * @param position Item 的位置
+     * @return
+     */
+    BottomNavigationBar.Item view(int position) {
+        if (views == null) {
+            views = new BottomNavigationBar.Item[capacity];
+        }
+        if (views[position] == null) {
+            views[position] = new BottomNavigationBar.Item(this, position);
+        }
+        return views[position];
+    }
+}
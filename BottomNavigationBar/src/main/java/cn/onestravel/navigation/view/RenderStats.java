@@ -0,0 +1,163 @@
+package cn.onestravel.navigation.view;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name RenderStats
+ * @description BottomNavigationBar 的渲染统计，通过 {@link BottomNavigationBar#setRenderStatsEnabled(boolean)} 开启，
+ * 只在主线程累加计数，通过 {@link BottomNavigationBar#getRenderStats(RenderStats)} 复制一份快照读取
+ * @createTime 2026/10/18 18:40
+ */
+public final class RenderStats {
+    //onDraw 的次数及耗时
+    private long drawCount;
+    private long drawTimeNanos;
+    private long maxDrawTimeNanos;
+    //onMeasure、onLayout 的次数
+    private long measureCount;
+    private long layoutCount;
+    //请求重绘的次数，多次请求可能合并为一次 onDraw
+    private long invalidateCount;
+    //处理点击的次数，以及从触摸事件产生到选中回调完成的延迟
+    private long touchCount;
+    private long touchLatencyMillis;
+    private long maxTouchLatencyMillis;
+    //加载菜单的次数及耗时，命中缓存时耗时很短
+    private long menuParseCount;
+    private long menuParseTimeNanos;
+    private long lastMenuParseTimeNanos;
+
+    public RenderStats() {
+    }
+
+    void recordDraw(long nanos) {
+        drawCount++;
+        drawTimeNanos += nanos;
+        if (nanos > maxDrawTimeNanos) {
+            maxDrawTimeNanos = nanos;
+        }
+    }
+
+    void recordMeasure() {
+        measureCount++;
+    }
+
+    void recordLayout() {
+        layoutCount++;
+    }
+
+    void recordInvalidate() {
+        invalidateCount++;
+    }
+
+    void recordTouch(long latencyMillis) {
+        touchCount++;
+        touchLatencyMillis += latencyMillis;
+        if (latencyMillis > maxTouchLatencyMillis) {
+            maxTouchLatencyMillis = latencyMillis;
+        }
+    }
+
+    void recordMenuParse(long nanos) {
+        menuParseCount++;
+        menuParseTimeNanos += nanos;
+        lastMenuParseTimeNanos = nanos;
+    }
+
+    /**
+     * 复制到另一个对象中
+     *
+     * @param out
+     */
+    void copyTo(RenderStats out) {
+        out.drawCount = drawCount;
+        out.drawTimeNanos = drawTimeNanos;
+        out.maxDrawTimeNanos = maxDrawTimeNanos;
+        out.measureCount = measureCount;
+        out.layoutCount = layoutCount;
+        out.invalidateCount = invalidateCount;
+        out.touchCount = touchCount;
+        out.touchLatencyMillis = touchLatencyMillis;
+        out.maxTouchLatencyMillis = maxTouchLatencyMillis;
+        out.menuParseCount = menuParseCount;
+        out.menuParseTimeNanos = menuParseTimeNanos;
+        out.lastMenuParseTimeNanos = lastMenuParseTimeNanos;
+    }
+
+    /**
+     * 清空所有计数
+     */
+    void reset() {
+        new RenderStats().copyTo(this);
+    }
+
+    public long getDrawCount() {
+        return drawCount;
+    }
+
+    public long getDrawTimeNanos() {
+        return drawTimeNanos;
+    }
+
+    public long getMaxDrawTimeNanos() {
+        return maxDrawTimeNanos;
+    }
+
+    public long getAverageDrawTimeNanos() {
+        return drawCount == 0 ? 0 : drawTimeNanos / drawCount;
+    }
+
+    public long getMeasureCount() {
+        return measureCount;
+    }
+
+    public long getLayoutCount() {
+        return layoutCount;
+    }
+
+    public long getInvalidateCount() {
+        return invalidateCount;
+    }
+
+    public long getTouchCount() {
+        return touchCount;
+    }
+
+    public long getTouchLatencyMillis() {
+        return touchLatencyMillis;
+    }
+
+    public long getMaxTouchLatencyMillis() {
+        return maxTouchLatencyMillis;
+    }
+
+    public long getMenuParseCount() {
+        return menuParseCount;
+    }
+
+    public long getMenuParseTimeNanos() {
+        return menuParseTimeNanos;
+    }
+
+    public long getLastMenuParseTimeNanos() {
+        return lastMenuParseTimeNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "RenderStats{" +
+                "draw=" + drawCount +
+                ", drawTimeNanos=" + drawTimeNanos +
+                ", maxDrawTimeNanos=" + maxDrawTimeNanos +
+                ", measure=" + measureCount +
+                ", layout=" + layoutCount +
+                ", invalidate=" + invalidateCount +
+                ", touch=" + touchCount +
+                ", touchLatencyMillis=" + touchLatencyMillis +
+                ", maxTouchLatencyMillis=" + maxTouchLatencyMillis +
+                ", menuParse=" + menuParseCount +
+                ", menuParseTimeNanos=" + menuParseTimeNanos +
+                ", lastMenuParseTimeNanos=" + lastMenuParseTimeNanos +
+                '}';
+    }
+}
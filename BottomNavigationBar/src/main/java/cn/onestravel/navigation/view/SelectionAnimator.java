@@ -0,0 +1,261 @@
+package cn.onestravel.navigation.view;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name SelectionAnimator
+ * @description 选中切换动画的进度，每个Item一个线性进度，绘制时通过预先计算好的插值表取值，
+ * 由 BottomNavigationBar 的 Choreographer 回调驱动，每帧不分配对象
+ * @createTime 2026/10/18 18:10
+ */
+final class SelectionAnimator {
+    //图标选中时放大的最大比例
+    static final float ICON_PULSE = 0.12f;
+    //插值表的大小
+    private static final int TABLE_SIZE = 65;
+    //先加速后减速的插值表
+    private static final float[] EASE = new float[TABLE_SIZE];
+    //图标缩放表，开始和结束时为 1，中间放大
+    private static final float[] PULSE = new float[TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            double t = (double) i / (TABLE_SIZE - 1);
+            EASE[i] = (float) (0.5 - Math.cos(Math.PI * t) / 2);
+            PULSE[i] = (float) (1 + ICON_PULSE * Math.sin(Math.PI * t));
+        }
+    }
+
+    //每个Item的线性进度，0 为未选中，1 为选中
+    private float[] progress = new float[0];
+    //选中指示器移动的起点和终点（Item 的位置），动画中再次切换时起点在两个Item之间
+    private float indicatorFrom;
+    private int indicatorTo;
+    //选中指示器的线性进度
+    private float indicatorProgress = 1f;
+    //动画时长
+    private long durationNanos;
+    //上一帧的时间
+    private long lastFrameNanos;
+    //跟随页面滑动时左边页面的位置，-1 时没有滑动
+    private int scrollPosition = -1;
+    //页面滑动的偏移，0 为左边页面，1 为右边页面
+    private float scrollOffset;
+
+    /**
+     * 设置动画时长
+     *
+     * @param durationMillis 毫秒，<=0 时没有动画
+     */
+    void setDuration(int durationMillis) {
+        durationNanos = durationMillis <= 0 ? 0 : durationMillis * 1000000L;
+    }
+
+    boolean isEnabled() {
+        return durationNanos > 0;
+    }
+
+    /**
+     * 菜单变化时重置所有进度
+     *
+     * @param count Item 数量
+     */
+    void reset(int count) {
+        if (progress.length != count) {
+            progress = new float[count];
+        } else {
+            for (int i = 0; i < count; i++) {
+                progress[i] = 0f;
+            }
+        }
+        indicatorProgress = 1f;
+        scrollPosition = -1;
+    }
+
+    /**
+     * 直接跳到最终状态，没有动画
+     *
+     * @param position Item 的位置
+     * @param checked  是否选中
+     */
+    void snap(int position, boolean checked) {
+        if (position >= 0 && position < progress.length) {
+            progress[position] = checked ? 1f : 0f;
+        }
+    }
+
+    /**
+     * 选中指示器直接跳到某个位置
+     *
+     * @param position Item 的位置
+     */
+    void snapIndicator(int position) {
+        indicatorFrom = indicatorTo = position;
+        indicatorProgress = 1f;
+    }
+
+    /**
+     * 选中指示器从当前位置移动到新的位置
+     *
+     * @param position Item 的位置
+     */
+    void moveIndicator(int position) {
+        indicatorFrom = getIndicatorPosition();
+        indicatorTo = position;
+        indicatorProgress = indicatorFrom == indicatorTo ? 1f : 0f;
+    }
+
+    /**
+     * 跟随页面滑动，滑动中左右两个Item的选中比例和指示器位置由偏移决定，不再使用动画进度
+     *
+     * @param position 左边页面的位置，-1 时结束滑动，恢复使用动画进度
+     * @param offset   偏移，0 到 1
+     */
+    void setScroll(int position, float offset) {
+        scrollPosition = position;
+        scrollOffset = offset;
+    }
+
+    int getScrollPosition() {
+        return scrollPosition;
+    }
+
+    /**
+     * 是否为滑动中正在混合的两个Item之一
+     *
+     * @param position Item 的位置
+     * @return
+     */
+    boolean isScrollBlending(int position) {
+        return scrollPosition >= 0 && (position == scrollPosition || position == scrollPosition + 1);
+    }
+
+    /**
+     * 开始动画前记录开始时间
+     *
+     * @param nowNanos
+     */
+    void start(long nowNanos) {
+        lastFrameNanos = nowNanos;
+    }
+
+    /**
+     * 前进一帧
+     *
+     * @param frameTimeNanos 这一帧的时间
+     * @param host           提供选中状态并接收每个变化的Item
+     * @return 是否还需要下一帧
+     */
+    boolean step(long frameTimeNanos, Host host) {
+        long dt = frameTimeNanos - lastFrameNanos;
+        lastFrameNanos = frameTimeNanos;
+        float delta = durationNanos <= 0 ? 1f : (float) Math.max(dt, 0) / durationNanos;
+        boolean running = false;
+        for (int i = 0; i < progress.length; i++) {
+            float target = host.isItemChecked(i) ? 1f : 0f;
+            float p = progress[i];
+            if (p == target) {
+                continue;
+            }
+            p = p < target ? Math.min(target, p + delta) : Math.max(target, p - delta);
+            progress[i] = p;
+            boolean settled = p == target;
+            host.onItemAnimated(i, settled);
+            running |= !settled;
+        }
+        if (indicatorProgress < 1f) {
+            indicatorProgress = Math.min(1f, indicatorProgress + delta);
+            host.onIndicatorAnimated(indicatorFrom, indicatorTo);
+            running |= indicatorProgress < 1f;
+        }
+        return running;
+    }
+
+    /**
+     * 直接结束所有动画
+     *
+     * @param host 提供选中状态
+     */
+    void finish(Host host) {
+        for (int i = 0; i < progress.length; i++) {
+            progress[i] = host.isItemChecked(i) ? 1f : 0f;
+        }
+        indicatorProgress = 1f;
+    }
+
+    /**
+     * Item 的线性进度，用于判断是否还在动画中
+     *
+     * @param position Item 的位置
+     * @return
+     */
+    float getProgress(int position) {
+        return position < progress.length ? progress[position] : 0f;
+    }
+
+    /**
+     * Item 插值后的选中比例，用于颜色和透明度的过渡
+     *
+     * @param position Item 的位置
+     * @return
+     */
+    float getFraction(int position) {
+        if (scrollPosition >= 0) {
+            if (position == scrollPosition) {
+                return 1f - scrollOffset;
+            }
+            return position == scrollPosition + 1 ? scrollOffset : 0f;
+        }
+        return ease(getProgress(position));
+    }
+
+    /**
+     * Item 图标的缩放比例
+     *
+     * @param position Item 的位置
+     * @return
+     */
+    float getIconScale(int position) {
+        if (scrollPosition >= 0) {
+            return 1f;
+        }
+        return PULSE[index(getProgress(position))];
+    }
+
+    /**
+     * 选中指示器当前所在的位置，动画中为两个位置之间的小数
+     *
+     * @return
+     */
+    float getIndicatorPosition() {
+        if (scrollPosition >= 0) {
+            return scrollPosition + scrollOffset;
+        }
+        return indicatorFrom + (indicatorTo - indicatorFrom) * ease(indicatorProgress);
+    }
+
+    private static float ease(float t) {
+        if (t <= 0f) {
+            return 0f;
+        }
+        if (t >= 1f) {
+            return 1f;
+        }
+        return EASE[index(t)];
+    }
+
+    private static int index(float t) {
+        return (int) (Math.max(0f, Math.min(1f, t)) * (TABLE_SIZE - 1) + 0.5f);
+    }
+
+    /**
+     * 动画的宿主，即 BottomNavigationBar
+     */
+    interface Host {
+        boolean isItemChecked(int position);
+
+        void onItemAnimated(int position, boolean settled);
+
+        void onIndicatorAnimated(float from, int to);
+    }
+}
@@ -0,0 +1,70 @@
+package cn.onestravel.navigation.menu;
+
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.os.Build;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name MenuCacheTest
+ * @description 图标颜色状态列表按颜色而不是实例作为缓存的 key：颜色相同的不同实例命中同一个缓存，颜色不同时重新解析
+ * @createTime 2026/10/19 11:00
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.O_MR1)
+public class MenuCacheTest {
+    //测试菜单的资源 id，只用作菜单缓存的 key
+    private static final int MENU_RES = 0x7f990002;
+    private static final int CHECKED_COLOR = 0xff4185e6;
+    private static final int NORMAL_COLOR = 0xffccd5de;
+
+    private Resources resources;
+    private GeneratedMenu menu;
+
+    @Before
+    public void setUp() {
+        MenuCache.clear();
+        resources = ApplicationProvider.getApplicationContext().getResources();
+        menu = new GeneratedMenu(MENU_RES,
+                new int[]{1, 2},
+                new int[]{android.R.drawable.ic_menu_compass, android.R.drawable.ic_menu_call},
+                new String[]{"首页", "联系人"},
+                new int[]{0, 0},
+                new int[]{GeneratedMenu.FLAG_CHECKABLE | GeneratedMenu.FLAG_CHECKED, GeneratedMenu.FLAG_CHECKABLE});
+    }
+
+    @Test
+    public void equalTintsShareCachedMenu() {
+        ParsedMenu first = MenuCache.obtain(resources, menu, tint(CHECKED_COLOR, NORMAL_COLOR));
+        ParsedMenu second = MenuCache.obtain(resources, menu, tint(CHECKED_COLOR, NORMAL_COLOR));
+        assertSame(first, second);
+    }
+
+    @Test
+    public void differentTintsParseAgain() {
+        ParsedMenu blue = MenuCache.obtain(resources, menu, tint(CHECKED_COLOR, NORMAL_COLOR));
+        ParsedMenu red = MenuCache.obtain(resources, menu, tint(0xffff0000, NORMAL_COLOR));
+        assertNotSame(blue, red);
+        assertSame(blue, MenuCache.obtain(resources, menu, tint(CHECKED_COLOR, NORMAL_COLOR)));
+    }
+
+    /**
+     * 每次创建新的实例，与直接写颜色值时每个导航栏得到的颜色状态列表一样
+     */
+    private static ColorStateList tint(int checkedColor, int normalColor) {
+        return new ColorStateList(new int[][]{{android.R.attr.state_checked}, {}},
+                new int[]{checkedColor, normalColor});
+    }
+}
@@ -0,0 +1,51 @@
+package cn.onestravel.navigation.view;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name AllocationTracker
+ * @description 通过 com.sun.management.ThreadMXBean 统计当前线程分配的内存
+ * @createTime 2026/10/18 20:00
+ */
+final class AllocationTracker {
+
+    private AllocationTracker() {
+    }
+
+    /**
+     * 是否支持统计线程分配的内存
+     *
+     * @return
+     */
+    static boolean isSupported() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        return bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported();
+    }
+
+    /**
+     * 执行 iterations 次操作，返回分配的字节数
+     *
+     * @param iterations 执行次数
+     * @param op         操作
+     * @return
+     */
+    static long measure(int iterations, Op op) {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!bean.isThreadAllocatedMemoryEnabled()) {
+            bean.setThreadAllocatedMemoryEnabled(true);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = bean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            op.run(i);
+        }
+        return bean.getThreadAllocatedBytes(threadId) - before;
+    }
+
+    interface Op {
+        void run(int iteration);
+    }
+}
@@ -0,0 +1,157 @@
+package cn.onestravel.navigation.view;
+
+import android.os.Build;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import cn.onestravel.navigation.menu.MenuCache;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name BottomNavigationBarAllocationTest
+ * @description 保证稳定状态下 onDraw 和 onTouchEvent 不分配对象。绘制到不做任何事的 {@link RecordingCanvas}，
+ * 只统计 View 自身的分配；平均每次操作分配不到 1 字节即认为没有分配，允许一次性的延迟初始化。
+ * Robolectric 的 View.draw 只画背景，这里直接调用 onDraw；super.onTouchEvent 经过 Robolectric 的 ShadowView，
+ * 每次都会分配，点击的统计会减去普通 View 处理同样事件的分配
+ * @createTime 2026/10/18 20:00
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.O_MR1)
+public class BottomNavigationBarAllocationTest {
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int ITERATIONS = 2000;
+
+    private BottomNavigationBar view;
+    private RecordingCanvas canvas;
+    private MotionEvent[] downEvents;
+    private MotionEvent[] upEvents;
+    //普通 View，用于统计 super.onTouchEvent 本身的分配
+    private View plainView;
+
+    @Before
+    public void setUp() {
+        Assume.assumeTrue("thread allocation counting is not supported", AllocationTracker.isSupported());
+        MenuCache.clear();
+        //关闭了选中动画，只测量点击分发，不包含选中动画的帧回调
+        view = TestBars.create();
+        view.setFloatingEnable(true);
+        view.setFloatingUp(40);
+        view.setMsgCounts(new int[]{0, -1, 1, 99, 150});
+        TestBars.layout(view);
+        canvas = new RecordingCanvas(view.getMeasuredWidth(), view.getMeasuredHeight());
+        canvas.setRecording(false);
+        long now = SystemClock.uptimeMillis();
+        int y = view.getMeasuredHeight() - 1;
+        int itemWidth = TestBars.WIDTH / 5;
+        plainView = new View(TestBars.context());
+        downEvents = new MotionEvent[2];
+        upEvents = new MotionEvent[2];
+        for (int i = 0; i < 2; i++) {
+            int x = i * itemWidth + itemWidth / 2;
+            downEvents[i] = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, x, y, 0);
+            upEvents[i] = MotionEvent.obtain(now, now, MotionEvent.ACTION_UP, x, y, 0);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (downEvents != null) {
+            for (int i = 0; i < downEvents.length; i++) {
+                downEvents[i].recycle();
+                upEvents[i].recycle();
+            }
+        }
+    }
+
+    @Test
+    public void drawDoesNotAllocate() {
+        assertNoAllocation("onDraw", new AllocationTracker.Op() {
+            @Override
+            public void run(int iteration) {
+                view.onDraw(canvas);
+            }
+        });
+    }
+
+    @Test
+    public void drawWithRenderCacheDoesNotAllocate() {
+        view.setRenderCacheEnabled(true);
+        assertNoAllocation("onDraw with render cache", new AllocationTracker.Op() {
+            @Override
+            public void run(int iteration) {
+                view.onDraw(canvas);
+            }
+        });
+    }
+
+    @Test
+    public void drawManyDistinctBadgesDoesNotAllocate() {
+        //滚动模式下一屏显示20个Item，未读消息数各不相同，超过默认缓存的16张位图
+        int count = 20;
+        final BottomNavigationBar many = new BottomNavigationBar(TestBars.context());
+        many.setItemAnimDuration(0);
+        many.setScrollable(true);
+        many.setMinItemWidth(TestBars.WIDTH / count);
+        many.setMenu(TestMenus.items(count));
+        int[] msgCounts = new int[count];
+        for (int i = 0; i < count; i++) {
+            msgCounts[i] = i + 1;
+        }
+        many.setMsgCounts(msgCounts);
+        TestBars.layout(many);
+        assertNoAllocation("onDraw with " + count + " distinct badges", new AllocationTracker.Op() {
+            @Override
+            public void run(int iteration) {
+                many.onDraw(canvas);
+            }
+        });
+    }
+
+    @Test
+    public void touchDoesNotAllocate() {
+        AllocationTracker.Op plainTouch = new AllocationTracker.Op() {
+            @Override
+            public void run(int iteration) {
+                int position = iteration & 1;
+                plainView.onTouchEvent(downEvents[position]);
+                plainView.onTouchEvent(upEvents[position]);
+            }
+        };
+        AllocationTracker.measure(WARMUP_ITERATIONS, plainTouch);
+        long baseline = AllocationTracker.measure(ITERATIONS, plainTouch);
+        assertNoAllocation("onTouchEvent", baseline, new AllocationTracker.Op() {
+            @Override
+            public void run(int iteration) {
+                //在两个Item之间来回切换，每次都会改变选中
+                int position = iteration & 1;
+                view.onTouchEvent(downEvents[position]);
+                view.onTouchEvent(upEvents[position]);
+            }
+        });
+    }
+
+    private void assertNoAllocation(String name, AllocationTracker.Op op) {
+        assertNoAllocation(name, 0, op);
+    }
+
+    /**
+     * @param baseline 测试环境本身在 ITERATIONS 次操作中的分配，不计入 View 的分配
+     */
+    private void assertNoAllocation(String name, long baseline, AllocationTracker.Op op) {
+        AllocationTracker.measure(WARMUP_ITERATIONS, op);
+        long bytes = AllocationTracker.measure(ITERATIONS, op) - baseline;
+        assertTrue(name + " allocated " + bytes + " bytes in " + ITERATIONS + " iterations", bytes < ITERATIONS);
+    }
+}
@@ -0,0 +1,136 @@
+package cn.onestravel.navigation.view;
+
+import android.os.Build;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import cn.onestravel.navigation.menu.MenuCache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name BottomNavigationBarGoldenTest
+ * @description 在不同的选中位置、未读消息数和上浮状态下绘制导航栏，与 src/test/resources/golden 中的参考结果比较。
+ * 参考结果是 {@link RecordingCanvas} 记录的绘制操作列表，不依赖具体的光栅化实现。
+ * Robolectric 的 View.draw 只画背景，这里直接调用 onDraw；未读消息通过 {@link RecordingCanvas.BadgeRecorder} 记录数字和文字，
+ * 图标通过 {@link RecordingShadows} 记录区域和状态。
+ * 参考结果不存在时测试失败，修改了绘制效果后使用 -Dgolden.update=true 重新生成，检查后一起提交
+ * @createTime 2026/10/18 20:00
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.O_MR1,
+        shadows = {RecordingShadows.RealStateListDrawable.class, RecordingShadows.IconBitmapDrawable.class})
+public class BottomNavigationBarGoldenTest {
+    //参考结果所在的目录，相对于模块目录
+    private static final File GOLDEN_DIR = new File("src/test/resources/golden");
+    private static final int FLOATING_UP = 40;
+    //覆盖所有显示方式：不显示、小红点、1、99、99+
+    private static final int[] BADGES = new int[]{0, -1, 1, 99, 150};
+    private static final int[] NO_BADGES = new int[]{0, 0, 0, 0, 0};
+
+    private final String name;
+    private final int selected;
+    private final boolean floating;
+    private final int[] badges;
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0}")
+    public static Collection<Object[]> states() {
+        List<Object[]> states = new ArrayList<>();
+        for (int floating = 0; floating < 2; floating++) {
+            for (int selected = 0; selected < 5; selected++) {
+                String name = (floating == 1 ? "floating" : "flat") + "_selected" + selected;
+                states.add(new Object[]{name, selected, floating == 1, BADGES});
+            }
+        }
+        states.add(new Object[]{"flat_no_badges", 0, false, NO_BADGES});
+        return states;
+    }
+
+    public BottomNavigationBarGoldenTest(String name, int selected, boolean floating, int[] badges) {
+        this.name = name;
+        this.selected = selected;
+        this.floating = floating;
+        this.badges = badges;
+    }
+
+    @Before
+    public void setUp() {
+        MenuCache.clear();
+    }
+
+    @Test
+    public void matchesGolden() throws IOException {
+        BottomNavigationBar view = TestBars.create();
+        view.setBadgeRenderer(new RecordingCanvas.BadgeRecorder());
+        view.setFloatingEnable(floating);
+        if (floating) {
+            view.setFloatingUp(FLOATING_UP);
+        }
+        view.setMsgCounts(badges);
+        TestBars.layout(view);
+        view.setSelected(selected);
+
+        RecordingCanvas canvas = new RecordingCanvas(view.getMeasuredWidth(), view.getMeasuredHeight());
+        view.onDraw(canvas);
+        assertMatchesGolden(canvas.getOps());
+    }
+
+    private void assertMatchesGolden(String actual) throws IOException {
+        File golden = new File(GOLDEN_DIR, name + ".txt");
+        if (Boolean.getBoolean("golden.update")) {
+            write(golden, actual);
+            Assume.assumeTrue("recorded " + golden.getPath() + ", review and commit it", false);
+        }
+        assertTrue("missing " + golden.getPath() + ", run the tests with -Dgolden.update=true to record it",
+                golden.isFile());
+        assertEquals("rendering of " + name + " differs from " + golden.getPath(), read(golden), actual);
+    }
+
+    private static String read(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] data = new byte[(int) file.length()];
+            int offset = 0;
+            while (offset < data.length) {
+                int n = in.read(data, offset, data.length - offset);
+                if (n < 0) {
+                    break;
+                }
+                offset += n;
+            }
+            return new String(data, 0, offset, "UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
+    private static void write(File file, String content) throws IOException {
+        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+            throw new IOException("cannot create " + file.getParent());
+        }
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes("UTF-8"));
+        } finally {
+            out.close();
+        }
+    }
+}
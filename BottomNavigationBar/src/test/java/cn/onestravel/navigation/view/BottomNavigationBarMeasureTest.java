@@ -0,0 +1,104 @@
+package cn.onestravel.navigation.view;
+
+import android.graphics.Canvas;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import cn.onestravel.navigation.menu.MenuCache;
+import cn.onestravel.navigation.utils.DensityUtils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name BottomNavigationBarMeasureTest
+ * @description 测量和布局参数：重复设置同一个布局参数时 topMargin 不累加，空菜单可以测量和绘制，
+ * wrap_content 时按内容计算宽高
+ * @createTime 2026/10/18 23:30
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.O_MR1)
+public class BottomNavigationBarMeasureTest {
+    private static final int FLOATING_UP = 40;
+
+    @Before
+    public void setUp() {
+        MenuCache.clear();
+    }
+
+    @Test
+    public void repeatedLayoutParamsKeepTopMarginStable() {
+        BottomNavigationBar view = TestBars.create();
+        view.setFloatingEnable(true);
+        view.setFloatingUp(FLOATING_UP);
+        LinearLayout.LayoutParams params =
+                new LinearLayout.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, TestBars.HEIGHT);
+        params.topMargin = 10;
+
+        for (int i = 0; i < 3; i++) {
+            view.setLayoutParams(params);
+            assertEquals("setLayoutParams call " + (i + 1), 10 - FLOATING_UP, params.topMargin);
+        }
+
+        //关闭上浮后恢复原来的 topMargin
+        view.setFloatingEnable(false);
+        assertEquals(10, params.topMargin);
+    }
+
+    @Test
+    public void emptyMenuMeasuresLaysOutAndDraws() {
+        BottomNavigationBar view = new BottomNavigationBar(TestBars.context());
+        int[] modes = {View.MeasureSpec.EXACTLY, View.MeasureSpec.AT_MOST, View.MeasureSpec.UNSPECIFIED};
+        for (int mode : modes) {
+            view.measure(View.MeasureSpec.makeMeasureSpec(TestBars.WIDTH, mode),
+                    View.MeasureSpec.makeMeasureSpec(TestBars.HEIGHT, mode));
+            view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+            view.onDraw(new Canvas());
+            assertTrue(view.getMeasuredHeight() > 0);
+        }
+        //没有Item时 wrap_content 的宽度只有内边距
+        view.measure(View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED),
+                View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED));
+        assertEquals(0, view.getMeasuredWidth());
+    }
+
+    @Test
+    public void wrapContentUsesContentSize() {
+        BottomNavigationBar view = TestBars.create();
+        int minItemWidth = DensityUtils.dpToPx(view.getResources(), 64);
+
+        int unspecified = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+        view.measure(unspecified, unspecified);
+        int contentHeight = view.getMeasuredHeight();
+        assertEquals(5 * minItemWidth, view.getMeasuredWidth());
+        assertTrue(contentHeight > 0);
+
+        //AT_MOST 的上限大于内容高度时与 UNSPECIFIED 相同，不会撑满上限
+        view.measure(View.MeasureSpec.makeMeasureSpec(TestBars.WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.AT_MOST));
+        assertEquals(TestBars.WIDTH, view.getMeasuredWidth());
+        assertEquals(contentHeight, view.getMeasuredHeight());
+
+        //内边距加在内容高度上
+        view.setPadding(0, 8, 0, 12);
+        view.measure(unspecified, unspecified);
+        assertEquals(contentHeight + 20, view.getMeasuredHeight());
+
+        //上浮距离加在测量出的高度上，重复测量不累加
+        view.setFloatingEnable(true);
+        view.setFloatingUp(FLOATING_UP);
+        view.measure(unspecified, unspecified);
+        view.measure(unspecified, unspecified);
+        assertEquals(contentHeight + 20 + FLOATING_UP, view.getMeasuredHeight());
+    }
+}
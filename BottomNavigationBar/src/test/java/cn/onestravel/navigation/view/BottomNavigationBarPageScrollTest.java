@@ -0,0 +1,107 @@
+package cn.onestravel.navigation.view;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.os.Build;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import cn.onestravel.navigation.menu.MenuCache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name BottomNavigationBarPageScrollTest
+ * @description ViewPager 滑动过程中只重绘混合的两个Item所在的区域，开始和结束滑动时重绘整个导航栏
+ * @createTime 2026/10/18 23:50
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.O_MR1)
+public class BottomNavigationBarPageScrollTest {
+    //5个Item平分宽度
+    private static final int SLOT = TestBars.WIDTH / 5;
+
+    private RecordingBar view;
+
+    @Before
+    public void setUp() {
+        MenuCache.clear();
+        view = TestBars.withMenu(new RecordingBar(TestBars.context()));
+        TestBars.layout(view);
+    }
+
+    @Test
+    public void scrollInvalidatesOnlyBlendedSlots() {
+        view.reset();
+        view.setPageScrollOffset(1, 0.3f);
+        assertTrue("starting a scroll redraws the whole bar", view.fullInvalidates > 0);
+
+        view.reset();
+        view.setPageScrollOffset(1, 0.6f);
+        assertEquals(0, view.fullInvalidates);
+        assertEquals(1, view.rects.size());
+        Rect dirty = view.rects.get(0);
+        assertEquals(SLOT, dirty.left);
+        assertEquals(3 * SLOT, dirty.right);
+    }
+
+    @Test
+    public void movingToNextPairInvalidatesBothPairs() {
+        view.setPageScrollOffset(1, 0.9f);
+        view.reset();
+        view.setPageScrollOffset(2, 0.1f);
+        assertEquals(0, view.fullInvalidates);
+        assertEquals(1, view.rects.size());
+        Rect dirty = view.rects.get(0);
+        assertEquals(SLOT, dirty.left);
+        assertEquals(4 * SLOT, dirty.right);
+    }
+
+    @Test
+    public void endingScrollRedrawsWholeBar() {
+        view.setPageScrollOffset(1, 0.5f);
+        view.reset();
+        view.setPageScrollOffset(1, 0f);
+        assertTrue(view.fullInvalidates > 0);
+        assertEquals(0, view.rects.size());
+    }
+
+    /**
+     * 记录整个View的重绘次数和局部重绘的区域
+     */
+    private static class RecordingBar extends BottomNavigationBar {
+        private final List<Rect> rects = new ArrayList<>();
+        private int fullInvalidates;
+
+        RecordingBar(Context context) {
+            super(context);
+        }
+
+        @Override
+        public void invalidate() {
+            fullInvalidates++;
+            super.invalidate();
+        }
+
+        @Override
+        public void postInvalidate(int left, int top, int right, int bottom) {
+            rects.add(new Rect(left, top, right, bottom));
+            super.postInvalidate(left, top, right, bottom);
+        }
+
+        void reset() {
+            rects.clear();
+            fullInvalidates = 0;
+        }
+    }
+}
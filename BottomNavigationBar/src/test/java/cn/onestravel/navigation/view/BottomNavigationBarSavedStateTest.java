@@ -0,0 +1,80 @@
+package cn.onestravel.navigation.view;
+
+import android.os.Build;
+import android.os.Parcel;
+import android.os.Parcelable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import cn.onestravel.navigation.menu.MenuCache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name BottomNavigationBarSavedStateTest
+ * @description 保存的状态经过 Parcel 后恢复到新的导航栏中，选中位置、未读消息数和禁用的Item保持不变，
+ * 恢复的选中不回调 onItemSelected
+ * @createTime 2026/10/18 23:10
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.O_MR1)
+public class BottomNavigationBarSavedStateTest {
+    @Before
+    public void setUp() {
+        MenuCache.clear();
+    }
+
+    @Test
+    public void restoresSelectionAndBadgesWithoutCallback() {
+        BottomNavigationBar source = TestBars.create();
+        TestBars.layout(source);
+        source.setSelected(3);
+        source.setMsgCounts(new int[]{0, -1, 7, 0, 150});
+        source.setItemEnabledById(5, false);
+        Parcelable state = parcel(source.onSaveInstanceState());
+
+        BottomNavigationBar restored = TestBars.create();
+        final int[] selectedCount = new int[1];
+        restored.setOnItemSelectedListener(new BottomNavigationBar.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(BottomNavigationBar.Item item, int position) {
+                selectedCount[0]++;
+            }
+        });
+        restored.onRestoreInstanceState(state);
+        TestBars.layout(restored);
+
+        //测试菜单默认选中第一个，恢复后只有保存时选中的第四个被选中
+        assertFalse(restored.getItemById(1).isChecked());
+        assertTrue(restored.getItemById(4).isChecked());
+        assertEquals(0, restored.getItemById(1).getMsgCount());
+        assertEquals(-1, restored.getItemById(2).getMsgCount());
+        assertEquals(7, restored.getItemById(3).getMsgCount());
+        assertEquals(150, restored.getItemById(5).getMsgCount());
+        assertTrue(restored.getItemById(4).isEnabled());
+        assertFalse(restored.getItemById(5).isEnabled());
+        assertEquals("restored selection must not call onItemSelected", 0, selectedCount[0]);
+    }
+
+    /**
+     * 与配置变化时一样经过 Parcel 写入和读取
+     */
+    private static Parcelable parcel(Parcelable state) {
+        Parcel parcel = Parcel.obtain();
+        try {
+            parcel.writeParcelable(state, 0);
+            parcel.setDataPosition(0);
+            return parcel.readParcelable(BottomNavigationBar.class.getClassLoader());
+        } finally {
+            parcel.recycle();
+        }
+    }
+}
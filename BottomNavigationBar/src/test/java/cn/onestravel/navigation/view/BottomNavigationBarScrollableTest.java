@@ -0,0 +1,78 @@
+package cn.onestravel.navigation.view;
+
+import android.os.Build;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import cn.onestravel.navigation.menu.MenuCache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name BottomNavigationBarScrollableTest
+ * @description 切换滚动模式时保留菜单和选中状态，关闭滚动模式后被隐藏的Item不再保持选中
+ * @createTime 2026/10/19 11:40
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.O_MR1)
+public class BottomNavigationBarScrollableTest {
+    private static final int COUNT = 8;
+
+    private BottomNavigationBar view;
+
+    @Before
+    public void setUp() {
+        MenuCache.clear();
+        view = new BottomNavigationBar(TestBars.context());
+        view.setItemAnimDuration(0);
+        view.setScrollable(true);
+        view.setMenu(TestMenus.items(COUNT));
+        TestBars.layout(view);
+    }
+
+    @Test
+    public void hidingCheckedItemClearsIt() {
+        view.setSelected(6);
+        assertTrue(view.getItemById(7).isChecked());
+
+        //关闭滚动模式后只显示前5个，第7个被隐藏
+        view.setScrollable(false);
+        TestBars.layout(view);
+        assertFalse(view.getItemById(7).isChecked());
+
+        view.setSelected(0);
+        view.setScrollable(true);
+        TestBars.layout(view);
+        assertEquals(1, checkedCount());
+        assertTrue(view.getItemById(1).isChecked());
+    }
+
+    @Test
+    public void visibleSelectionSurvivesToggle() {
+        view.setSelected(2);
+        view.setScrollable(false);
+        TestBars.layout(view);
+        view.setScrollable(true);
+        TestBars.layout(view);
+        assertEquals(1, checkedCount());
+        assertTrue(view.getItemById(3).isChecked());
+    }
+
+    private int checkedCount() {
+        int checked = 0;
+        for (int id = 1; id <= COUNT; id++) {
+            if (view.getItemById(id).isChecked()) {
+                checked++;
+            }
+        }
+        return checked;
+    }
+}
@@ -0,0 +1,235 @@
+package cn.onestravel.navigation.view;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+import java.util.Locale;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name RecordingCanvas
+ * @description 测试用的 Canvas，把每个绘制操作记录为一行文字，作为与后端无关的参考图像；
+ * 关闭记录时所有绘制都是空操作，用于统计 View 自身的内存分配。
+ * Robolectric 中文字宽度为 0，未读消息和图标画出的位图无法区分内容，因此通过 {@link BadgeRecorder}
+ * 和 {@link RecordingShadows} 记录未读消息的数字、文字以及图标的区域和状态
+ * @createTime 2026/10/18 20:00
+ */
+class RecordingCanvas extends Canvas {
+    private final int width;
+    private final int height;
+    private final StringBuilder ops = new StringBuilder();
+    private boolean recording = true;
+    private int saveCount = 1;
+
+    RecordingCanvas(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    String getOps() {
+        return ops.toString();
+    }
+
+    @Override
+    public boolean getClipBounds(Rect bounds) {
+        bounds.set(0, 0, width, height);
+        return true;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int save() {
+        if (recording) {
+            record("save");
+        }
+        return saveCount++;
+    }
+
+    @Override
+    public void restore() {
+        if (recording) {
+            record("restore");
+        }
+        saveCount--;
+    }
+
+    @Override
+    public void restoreToCount(int count) {
+        if (recording) {
+            record("restoreToCount %d", count);
+        }
+        saveCount = count;
+    }
+
+    @Override
+    public void translate(float dx, float dy) {
+        if (recording) {
+            record("translate %.2f %.2f", dx, dy);
+        }
+    }
+
+    @Override
+    public void scale(float sx, float sy) {
+        if (recording) {
+            record("scale %.3f %.3f", sx, sy);
+        }
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, Paint paint) {
+        if (recording) {
+            record("text '%s' %.1f %.1f size=%.1f %s", text, x, y, paint.getTextSize(), describe(paint));
+        }
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        if (recording) {
+            record("circle %.1f %.1f r=%.1f %s", cx, cy, radius, describe(paint));
+        }
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        if (recording) {
+            record("rect %.1f %.1f %.1f %.1f %s", left, top, right, bottom, describe(paint));
+        }
+    }
+
+    @Override
+    public void drawRect(Rect r, Paint paint) {
+        drawRect(r.left, r.top, r.right, r.bottom, paint);
+    }
+
+    @Override
+    public void drawRect(RectF r, Paint paint) {
+        drawRect(r.left, r.top, r.right, r.bottom, paint);
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint) {
+        if (recording) {
+            record("path %s", describe(paint));
+        }
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        if (recording) {
+            record("bitmap %dx%d at %.1f %.1f %s", bitmap.getWidth(), bitmap.getHeight(), left, top,
+                    describeBitmap(paint));
+        }
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        if (recording) {
+            record("bitmap %dx%d to %d %d %d %d %s", bitmap.getWidth(), bitmap.getHeight(),
+                    dst.left, dst.top, dst.right, dst.bottom, describeBitmap(paint));
+        }
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        if (recording) {
+            record("bitmap %dx%d to %.1f %.1f %.1f %.1f %s", bitmap.getWidth(), bitmap.getHeight(),
+                    dst.left, dst.top, dst.right, dst.bottom, describeBitmap(paint));
+        }
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint) {
+        if (recording) {
+            record("bitmap %dx%d matrix %s", bitmap.getWidth(), bitmap.getHeight(), describeBitmap(paint));
+        }
+    }
+
+    @Override
+    public void drawColor(int color) {
+        if (recording) {
+            record("color #%08x", color);
+        }
+    }
+
+    @Override
+    public void drawColor(int color, PorterDuff.Mode mode) {
+        if (recording) {
+            record("color #%08x %s", color, mode);
+        }
+    }
+
+    /**
+     * 记录一个图标，由 {@link RecordingShadows.IconBitmapDrawable} 调用
+     *
+     * @param bounds  图标的区域
+     * @param checked 是否为选中状态
+     * @param alpha   图标的透明度
+     */
+    void drawIcon(Rect bounds, boolean checked, int alpha) {
+        if (recording) {
+            record("icon %d %d %d %d %s alpha=%d", bounds.left, bounds.top, bounds.right, bounds.bottom,
+                    checked ? "checked" : "normal", alpha);
+        }
+    }
+
+    private void record(String format, Object... args) {
+        ops.append(String.format(Locale.US, format, args)).append('\n');
+    }
+
+    /**
+     * Robolectric 的 Paint 中 setColor 不会修改 getAlpha 的值，导航栏的透明度都合并在颜色中，这里从颜色中取出
+     */
+    private static String describe(Paint paint) {
+        if (paint == null) {
+            return "paint=null";
+        }
+        int color = paint.getColor();
+        return String.format(Locale.US, "color=#%08x alpha=%d filter=%b",
+                color, Color.alpha(color), paint.getColorFilter() != null);
+    }
+
+    /**
+     * 位图只记录画笔的透明度，绘制位图时通过 setAlpha 设置
+     */
+    private static String describeBitmap(Paint paint) {
+        if (paint == null) {
+            return "paint=null";
+        }
+        return String.format(Locale.US, "alpha=%d filter=%b", paint.getAlpha(), paint.getColorFilter() != null);
+    }
+
+    /**
+     * 记录未读消息的位置、数字和显示的文字，绘制到其他 Canvas 时什么都不做
+     */
+    static final class BadgeRecorder implements BadgeRenderer {
+
+        @Override
+        public void drawBadge(Canvas canvas, int count, int centerX, int centerY, int radius, int textSize) {
+            if (canvas instanceof RecordingCanvas && ((RecordingCanvas) canvas).recording) {
+                ((RecordingCanvas) canvas).record("badge count=%d text='%s' at %d %d r=%d size=%d",
+                        count, DefaultBadgeRenderer.getText(count), centerX, centerY, radius, textSize);
+            }
+        }
+    }
+}
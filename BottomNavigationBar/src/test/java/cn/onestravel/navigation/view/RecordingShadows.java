@@ -0,0 +1,69 @@
+package cn.onestravel.navigation.view;
+
+import android.graphics.Canvas;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.StateListDrawable;
+import android.util.StateSet;
+
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.annotation.RealObject;
+import org.robolectric.shadows.ShadowBitmapDrawable;
+import org.robolectric.shadows.ShadowDrawable;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name RecordingShadows
+ * @description 参考图像测试使用的 Robolectric shadow。默认的 StateListDrawable shadow 不保存子图标，
+ * 导航栏取到的选中和未选中图标都是 null；默认的 BitmapDrawable shadow 总是画在 (0, 0)，不使用图标的区域。
+ * 这里让 StateListDrawable 使用真实实现，并把图标的区域、状态和透明度记录到 {@link RecordingCanvas} 中
+ * @createTime 2026/10/19 10:30
+ */
+final class RecordingShadows {
+    private static final int[] STATE_CHECKED = new int[]{android.R.attr.state_checked};
+
+    private RecordingShadows() {
+    }
+
+    /**
+     * 不替换任何方法，StateListDrawable 按真实的实现保存子图标和切换状态
+     */
+    @Implements(StateListDrawable.class)
+    public static class RealStateListDrawable extends ShadowDrawable {
+    }
+
+    /**
+     * 把图标记录为区域、状态和透明度
+     */
+    @Implements(BitmapDrawable.class)
+    public static class IconBitmapDrawable extends ShadowBitmapDrawable {
+        @RealObject
+        private BitmapDrawable realDrawable;
+        //Robolectric 的 Paint 不保存 setAlpha 之前的默认值，这里单独记录
+        private int alpha = 255;
+
+        @Implementation
+        @Override
+        protected void setAlpha(int alpha) {
+            this.alpha = alpha;
+        }
+
+        @Implementation
+        @Override
+        protected int getAlpha() {
+            return alpha;
+        }
+
+        @Implementation
+        @Override
+        protected void draw(Canvas canvas) {
+            if (canvas instanceof RecordingCanvas) {
+                boolean checked = StateSet.stateSetMatches(STATE_CHECKED, realDrawable.getState());
+                ((RecordingCanvas) canvas).drawIcon(realDrawable.getBounds(), checked, alpha);
+            } else {
+                super.draw(canvas);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package cn.onestravel.navigation.view;
+
+import android.content.Context;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name TestBars
+ * @description 测试用的导航栏：使用 {@link TestMenus#fiveItems()} 菜单、关闭选中动画，按 1080x150 测量和布局
+ * @createTime 2026/10/19 10:00
+ */
+final class TestBars {
+    //导航栏的宽高，5个Item时每个Item宽 216
+    static final int WIDTH = 1080;
+    static final int HEIGHT = 150;
+
+    private TestBars() {
+    }
+
+    static Context context() {
+        return ApplicationProvider.getApplicationContext();
+    }
+
+    /**
+     * 创建使用测试菜单的导航栏，还没有测量和布局
+     *
+     * @return
+     */
+    static BottomNavigationBar create() {
+        return withMenu(new BottomNavigationBar(context()));
+    }
+
+    /**
+     * 给测试中创建的导航栏（包括子类）设置测试菜单，并关闭选中动画
+     *
+     * @param view
+     * @return
+     */
+    static <T extends BottomNavigationBar> T withMenu(T view) {
+        view.setItemAnimDuration(0);
+        view.setMenu(TestMenus.fiveItems());
+        return view;
+    }
+
+    /**
+     * 按 {@link #WIDTH} x {@link #HEIGHT} 精确测量并布局
+     *
+     * @param view
+     */
+    static void layout(View view) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+}
@@ -0,0 +1,58 @@
+package cn.onestravel.navigation.view;
+
+import cn.onestravel.navigation.menu.GeneratedMenu;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name TestMenus
+ * @description 测试用的菜单，图标使用系统资源，第三个菜单可以上浮
+ * @createTime 2026/10/18 20:00
+ */
+final class TestMenus {
+    //测试菜单的资源 id，只用作菜单缓存的 key
+    private static final int MENU_RES = 0x7f990001;
+    //指定数量的测试菜单的资源 id，加上Item数量作为缓存的 key
+    private static final int SIZED_MENU_RES = 0x7f991000;
+    private static final int[] ICONS = new int[]{android.R.drawable.ic_menu_compass,
+            android.R.drawable.ic_menu_call, android.R.drawable.ic_menu_camera,
+            android.R.drawable.ic_menu_search, android.R.drawable.ic_menu_info_details};
+
+    private TestMenus() {
+    }
+
+    static GeneratedMenu fiveItems() {
+        int checkable = GeneratedMenu.FLAG_CHECKABLE;
+        return new GeneratedMenu(MENU_RES,
+                new int[]{1, 2, 3, 4, 5},
+                new int[]{android.R.drawable.ic_menu_compass, android.R.drawable.ic_menu_call,
+                        android.R.drawable.ic_menu_camera, android.R.drawable.ic_menu_search,
+                        android.R.drawable.ic_menu_info_details},
+                new String[]{"首页", "联系人", "拍照", "发现", "我的"},
+                new int[]{0, 0, 0, 0, 0},
+                new int[]{checkable | GeneratedMenu.FLAG_CHECKED, checkable,
+                        checkable | GeneratedMenu.FLAG_FLOATING, checkable, checkable});
+    }
+
+    /**
+     * 指定数量的菜单，id 从 1 开始，第一个选中，没有上浮的Item，图标轮流使用系统图标
+     *
+     * @param count Item数量
+     * @return
+     */
+    static GeneratedMenu items(int count) {
+        int[] ids = new int[count];
+        int[] icons = new int[count];
+        String[] titles = new String[count];
+        int[] titleSizes = new int[count];
+        int[] flags = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+            icons[i] = ICONS[i % ICONS.length];
+            titles[i] = "Item " + (i + 1);
+            flags[i] = GeneratedMenu.FLAG_CHECKABLE;
+        }
+        flags[0] |= GeneratedMenu.FLAG_CHECKED;
+        return new GeneratedMenu(SIZED_MENU_RES + count, ids, icons, titles, titleSizes, flags);
+    }
+}
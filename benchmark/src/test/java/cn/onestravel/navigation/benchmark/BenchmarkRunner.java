@@ -0,0 +1,130 @@
+package cn.onestravel.navigation.benchmark;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name BenchmarkRunner
+ * @description 简单的基准测试计时器：先预热，再统计每次操作的平均耗时和分配的内存，
+ * 迭代次数可以通过 -Dbenchmark.iterations 修改
+ * @createTime 2026/10/18 19:30
+ */
+final class BenchmarkRunner {
+    //预热次数，让 JIT 编译完成
+    private static final int WARMUP_ITERATIONS = Integer.getInteger("benchmark.warmup", 2000);
+    //计时的次数
+    private static final int MEASURE_ITERATIONS = Integer.getInteger("benchmark.iterations", 10000);
+    //结果文件
+    private static final String RESULT_FILE = "results.tsv";
+
+    private BenchmarkRunner() {
+    }
+
+    /**
+     * 运行一个基准测试并输出结果
+     *
+     * @param name 用例名称
+     * @param op   每次执行的操作
+     * @return 测试结果
+     */
+    static Result run(String name, Op op) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            op.run(i);
+        }
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = allocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            op.run(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytesAfter = allocatedBytes(threadId);
+        Result result = new Result(name, (double) elapsed / MEASURE_ITERATIONS,
+                bytesBefore < 0 ? -1 : (double) (bytesAfter - bytesBefore) / MEASURE_ITERATIONS);
+        report(result);
+        return result;
+    }
+
+    /**
+     * 当前线程累计分配的内存，JVM 不支持时返回 -1
+     *
+     * @param threadId
+     * @return
+     */
+    private static long allocatedBytes(long threadId) {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()) {
+                if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+                    sunBean.setThreadAllocatedMemoryEnabled(true);
+                }
+                return sunBean.getThreadAllocatedBytes(threadId);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 输出到控制台，并追加到结果文件中
+     *
+     * @param result
+     */
+    private static void report(Result result) {
+        String line = String.format(Locale.US, "%-40s %12.1f ns/op %10.1f B/op", result.name, result.nanosPerOp, result.bytesPerOp);
+        System.out.println(line);
+        String outputDir = System.getProperty("benchmark.outputDir");
+        if (outputDir == null) {
+            return;
+        }
+        File dir = new File(outputDir);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            return;
+        }
+        Writer writer = null;
+        try {
+            writer = new FileWriter(new File(dir, RESULT_FILE), true);
+            writer.write(String.format(Locale.US, "%s\t%.1f\t%.1f%n", result.name, result.nanosPerOp, result.bytesPerOp));
+        } catch (IOException e) {
+            e.printStackTrace();
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * 被测量的操作
+     */
+    interface Op {
+        void run(int iteration);
+    }
+
+    /**
+     * 测试结果
+     */
+    static final class Result {
+        final String name;
+        //每次操作的平均耗时，纳秒
+        final double nanosPerOp;
+        //每次操作平均分配的内存，字节，不支持统计时为 -1
+        final double bytesPerOp;
+
+        Result(String name, double nanosPerOp, double bytesPerOp) {
+            this.name = name;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+        }
+    }
+}
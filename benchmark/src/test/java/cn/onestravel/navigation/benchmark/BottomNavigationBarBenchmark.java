@@ -0,0 +1,301 @@
+package cn.onestravel.navigation.benchmark;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.os.Build;
+import android.os.SystemClock;
+import android.support.v4.content.res.ResourcesCompat;
+import android.view.MotionEvent;
+import android.view.View;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.ParameterizedRobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import cn.onestravel.navigation.menu.MenuParser;
+import cn.onestravel.navigation.view.BottomNavigationBar;
+
+import static org.junit.Assert.assertNotNull;
+
+/**
+ * @author onestravel
+ * @version 1.0.0
+ * @name BottomNavigationBarBenchmark
+ * @description 测量菜单解析、测量布局、绘制和点击分发的耗时及内存分配，分别使用 3 个、5 个（demo 的 navigation_menu）
+ * 和大量菜单。Robolectric 的 View.draw 只画背景，不会调用 onDraw，绘制用例通过 {@link DrawingBar} 直接调用 onDraw，
+ * 绘制到什么都不做的 {@link NullCanvas} 上，测量的是 onDraw 中 Java 代码的开销，不包含光栅化
+ * @createTime 2026/10/18 19:30
+ */
+@RunWith(ParameterizedRobolectricTestRunner.class)
+@Config(sdk = Build.VERSION_CODES.O_MR1)
+public class BottomNavigationBarBenchmark {
+    //导航栏的宽高
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 150;
+    //一屏最多显示的Item数量，大量菜单时其余的需要滚动才能看到
+    private static final int MAX_VISIBLE_ITEMS = 5;
+
+    private final String name;
+    private final int menuRes;
+
+    private Resources resources;
+    private ColorStateList iconTint;
+    private DrawingBar view;
+    private Canvas canvas;
+    //每个Item中心的按下和抬起事件，提前创建好，测量时不分配
+    private MotionEvent[] downEvents;
+    private MotionEvent[] upEvents;
+
+    @ParameterizedRobolectricTestRunner.Parameters(name = "{0}")
+    public static Collection<Object[]> menus() {
+        return Arrays.asList(new Object[][]{
+                {"items3", R.menu.bench_menu_3},
+                {"items5", R.menu.navigation_menu},
+                {"itemsLarge", R.menu.bench_menu_large},
+        });
+    }
+
+    public BottomNavigationBarBenchmark(String name, int menuRes) {
+        this.name = name;
+        this.menuRes = menuRes;
+    }
+
+    @Before
+    public void setUp() {
+        Context context = ApplicationProvider.getApplicationContext();
+        resources = context.getResources();
+        iconTint = ResourcesCompat.getColorStateList(resources, R.drawable.default_blue_tab_tint, null);
+        view = new DrawingBar(context);
+        //滚动模式下大量菜单只绘制和点击可见的部分，耗时应与 5 个菜单接近
+        view.setScrollable(true);
+        view.setMinItemWidth(WIDTH / MAX_VISIBLE_ITEMS);
+        view.setMenu(menuRes);
+        //点击用例只测量分发和选中，不包含选中动画的帧回调
+        view.setItemAnimDuration(0);
+        measureAndLayout(WIDTH);
+        canvas = new NullCanvas(WIDTH, view.getMeasuredHeight());
+        int count = menuItemCount();
+        int itemWidth = WIDTH / count;
+        int y = view.getMeasuredHeight() - 1;
+        long now = SystemClock.uptimeMillis();
+        downEvents = new MotionEvent[count];
+        upEvents = new MotionEvent[count];
+        for (int i = 0; i < count; i++) {
+            int x = i * itemWidth + itemWidth / 2;
+            downEvents[i] = MotionEvent.obtain(now, now, MotionEvent.ACTION_DOWN, x, y, 0);
+            upEvents[i] = MotionEvent.obtain(now, now, MotionEvent.ACTION_UP, x, y, 0);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (int i = 0; i < downEvents.length; i++) {
+            downEvents[i].recycle();
+            upEvents[i].recycle();
+        }
+    }
+
+    @Test
+    public void parse() {
+        assertNotNull(MenuParser.parse(resources, menuRes, iconTint));
+        //直接调用解析器，不经过 MenuCache，测量的是每次真正解析 xml 的开销
+        BenchmarkRunner.run(name + "/parse", new BenchmarkRunner.Op() {
+            @Override
+            public void run(int iteration) {
+                MenuParser.parse(resources, menuRes, iconTint);
+            }
+        });
+    }
+
+    @Test
+    public void measureLayout() {
+        BenchmarkRunner.run(name + "/measureLayout", new BenchmarkRunner.Op() {
+            @Override
+            public void run(int iteration) {
+                //每次换一个宽度，测量缓存不会命中，onMeasure 和 onLayout 都会重新计算
+                measureAndLayout(WIDTH - (iteration & 1));
+            }
+        });
+    }
+
+    @Test
+    public void measureLayoutCached() {
+        BenchmarkRunner.run(name + "/measureLayoutCached", new BenchmarkRunner.Op() {
+            @Override
+            public void run(int iteration) {
+                //与父布局重新布局时相同：forceLayout 后用同样的宽高测量，onMeasure 直接使用缓存的结果
+                view.forceLayout();
+                measureAndLayout(WIDTH);
+            }
+        });
+    }
+
+    @Test
+    public void draw() {
+        BenchmarkRunner.run(name + "/draw", new BenchmarkRunner.Op() {
+            @Override
+            public void run(int iteration) {
+                view.drawContent(canvas);
+            }
+        });
+    }
+
+    @Test
+    public void touch() {
+        final int count = downEvents.length;
+        BenchmarkRunner.run(name + "/touch", new BenchmarkRunner.Op() {
+            @Override
+            public void run(int iteration) {
+                //每次点击不同的Item，包含选中切换的开销
+                int position = iteration % count;
+                view.dispatchTouchEvent(downEvents[position]);
+                view.dispatchTouchEvent(upEvents[position]);
+            }
+        });
+    }
+
+    private void measureAndLayout(int width) {
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+
+    /**
+     * 一屏可见的Item数量
+     *
+     * @return
+     */
+    private int menuItemCount() {
+        return Math.min(MenuParser.parse(resources, menuRes, iconTint).size(), MAX_VISIBLE_ITEMS);
+    }
+
+    /**
+     * 直接调用 onDraw 的导航栏，绘制用例经过完整的绘制流程：位图缓存、图标、未读消息和选中指示器
+     */
+    private static final class DrawingBar extends BottomNavigationBar {
+
+        DrawingBar(Context context) {
+            super(context);
+        }
+
+        void drawContent(Canvas canvas) {
+            onDraw(canvas);
+        }
+    }
+
+    /**
+     * 什么都不画的 Canvas。Robolectric 绘制到位图时会把每个操作的描述追加到位图中，耗时和分配远大于 onDraw 本身，
+     * 这里跳过所有绘制；Robolectric 的 Canvas 也没有真正的裁剪区域，这里返回整个导航栏，让 onDraw 绘制所有Item
+     */
+    private static final class NullCanvas extends Canvas {
+        private final int width;
+        private final int height;
+
+        NullCanvas(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public boolean getClipBounds(Rect bounds) {
+            bounds.set(0, 0, width, height);
+            return true;
+        }
+
+        @Override
+        public int getWidth() {
+            return width;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public int save() {
+            return 1;
+        }
+
+        @Override
+        public void restore() {
+        }
+
+        @Override
+        public void restoreToCount(int saveCount) {
+        }
+
+        @Override
+        public void translate(float dx, float dy) {
+        }
+
+        @Override
+        public void scale(float sx, float sy) {
+        }
+
+        @Override
+        public void drawText(String text, float x, float y, Paint paint) {
+        }
+
+        @Override
+        public void drawCircle(float cx, float cy, float radius, Paint paint) {
+        }
+
+        @Override
+        public void drawRect(float left, float top, float right, float bottom, Paint paint) {
+        }
+
+        @Override
+        public void drawRect(Rect r, Paint paint) {
+        }
+
+        @Override
+        public void drawRect(RectF r, Paint paint) {
+        }
+
+        @Override
+        public void drawPath(Path path, Paint paint) {
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint) {
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint) {
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint) {
+        }
+
+        @Override
+        public void drawBitmap(Bitmap bitmap, Matrix matrix, Paint paint) {
+        }
+
+        @Override
+        public void drawColor(int color) {
+        }
+
+        @Override
+        public void drawColor(int color, PorterDuff.Mode mode) {
+        }
+    }
+}
@@ -10,6 +10,7 @@ import android.view.View;
 import android.widget.TextView;
 import android.widget.Toast;
 
+import cn.onestravel.bottomview.demo.BottomNavigationMenus;
 import cn.onestravel.bottomview.demo.R;
 import cn.onestravel.navigation.utils.EventUtils;
 import cn.onestravel.navigation.view.BottomNavigationBar;
@@ -26,14 +27,11 @@ public class MainActivity extends AppCompatActivity {
         setContentView(R.layout.activity_main);
         textView = ((TextView) findViewById(R.id.tv));
         bottomView = ((BottomNavigationBar) findViewById(R.id.BottomLayout));
-        bottomView.setMenu(R.menu.navigation_menu);
+        bottomView.setMenu(BottomNavigationMenus.NAVIGATION_MENU);
         bottomView.setFloatingEnable(false);
         bottomView.setItemIconTint(R.drawable.item_check);
         bottomView.setItemColorStateList(R.drawable.item_check);
-        bottomView.setMsgCount(0,32);
-        bottomView.setMsgCount(4,111);
-        bottomView.setMsgCount(3,1);
-        bottomView.setMsgCount(1,-1);
+        bottomView.setMsgCounts(new int[]{32, -1, 0, 1, 111});
         bottomView.setOnItemSelectedListener(new BottomNavigationBar.OnItemSelectedListener() {
             @Override
             public void onItemSelected(BottomNavigationBar.Item item, int position) {